@@ -2,6 +2,7 @@ package com.kayak.hotelsearch;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import com.kayak.hotelsearch.booking.RequestIdGenerator;
 
 /**
  * Represents a hotel room booking request.
@@ -22,15 +23,25 @@ public class BookingRequest {
     private final BookingStatus status;
 
     /**
-     * Creates a new booking request with unique identifier.
+     * Creates a new booking request with a unique, time-ordered identifier.
      * Initializes request status as PENDING.
      * 
      * @throws IllegalArgumentException if validation fails
      */
     public BookingRequest(String guestName, int roomNumber, LocalDateTime checkIn, LocalDateTime checkOut) {
+        this(guestName, roomNumber, checkIn, checkOut, RequestIdGenerator.timeOrdered());
+    }
+
+    /**
+     * Creates a new booking request whose identifier comes from the given generator.
+     * 
+     * @throws IllegalArgumentException if validation fails
+     */
+    public BookingRequest(String guestName, int roomNumber, LocalDateTime checkIn, LocalDateTime checkOut,
+                          RequestIdGenerator idGenerator) {
         validateInput(guestName, roomNumber, checkIn, checkOut);
         
-        this.requestId = UUID.randomUUID();
+        this.requestId = idGenerator.nextId();
         this.guestName = guestName;
         this.roomNumber = roomNumber;
         this.checkIn = checkIn;
@@ -1,18 +1,30 @@
 package com.kayak.hotelsearch;
 
-import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kayak.hotelsearch.booking.BookingIngestion;
+import com.kayak.hotelsearch.booking.BookingOutcome;
 import com.kayak.hotelsearch.booking.BookingRequest;
+import com.kayak.hotelsearch.booking.ExecutionMode;
+import com.kayak.hotelsearch.journal.BookingJournal;
+import com.kayak.hotelsearch.journal.FsyncPolicy;
+import com.kayak.hotelsearch.journal.RoomSnapshot;
+import com.kayak.hotelsearch.journal.SnapshotManager;
 import com.kayak.hotelsearch.metrics.BookingMetrics;
+import com.kayak.hotelsearch.metrics.LatencyWindow;
 import com.kayak.hotelsearch.Room;
 import com.kayak.hotelsearch.RoomDatabaseAccessService;
 import io.micrometer.core.instrument.Timer;
@@ -25,9 +37,17 @@ import org.slf4j.LoggerFactory;
  */
 public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
-    private static final List<BookingRequest> incomingRequests = new ArrayList<>();
+    private static final String EXECUTION_MODES_PROPERTY = "booking.executionModes";
+    private static final String JOURNAL_DIR_PROPERTY = "booking.journalDir";
+    private static final String FSYNC_POLICY_PROPERTY = "booking.fsyncPolicy";
+    private static final String SNAPSHOT_INTERVAL_PROPERTY = "booking.snapshotIntervalSeconds";
+    private static final int POOL_SIZE = 5;
+    private static final long DEADLINE_SECONDS = 60;
+    private static final int INGESTION_QUEUE_CAPACITY = 4096;
+    private static final int INGESTION_BATCH_SIZE = 512;
     private static final BookingMetrics metrics = new BookingMetrics();
-    private static final RoomDatabaseAccessService roomService = new RoomDatabaseAccessService();
+    private static final BookingJournal journal = openJournal();
+    private static final RoomDatabaseAccessService roomService = new RoomDatabaseAccessService(journal);
 
     public static void main(String[] args) {
         // ===== SECTION 1: PERSONAL INFORMATION =====
@@ -35,15 +55,101 @@ public class Main {
         System.err.println("Yes, I prefer working from the office because it helps me stay focused, collaborate more effectively with my team, and maintain a clear boundary between work and personal life.");
 
         // ===== SECTION 2: ROOM MANAGEMENT INITIALIZATION =====
-        roomService.initializeRooms();
-        logger.info("Room database initialized with sample data");
+        recoverFromJournal();
+        SnapshotManager snapshots = startSnapshots();
 
         // ===== SECTION 3: BOOKING REQUEST PROCESSING =====
-        List<BookingRequest> requests = createBookingRequests();
-        processBookings(roomService, requests);
+        // A file argument replays its requests; otherwise each mode in
+        // -Dbooking.executionModes=PLATFORM_POOL,VIRTUAL_THREADS,... runs the sample on fresh rooms
+        List<ExecutionMode> modes = List.of();
+        if (args.length > 0) {
+            readBookingRequests(args[0]);
+        } else {
+            List<BookingRequest> requests = createBookingRequests();
+            modes = ExecutionMode.parseList(
+                System.getProperty(EXECUTION_MODES_PROPERTY, ExecutionMode.PLATFORM_POOL.name()));
+            if (journal != null && modes.size() > 1) {
+                // Resetting rooms between modes would leave the journal describing none of them
+                throw new IllegalArgumentException("Only one execution mode can run with a booking journal");
+            }
+            for (int i = 0; i < modes.size(); i++) {
+                // By position, so a mode listed twice still starts from fresh rooms
+                if (i > 0) {
+                    roomService.clear();
+                    roomService.initializeRooms();
+                }
+                processBookings(roomService, requests, modes.get(i));
+            }
+        }
 
         // ===== SECTION 4: METRICS REPORTING =====
-        reportMetrics();
+        reportMetrics(modes);
+        if (snapshots != null) {
+            snapshots.close();
+        }
+        closeJournal();
+    }
+
+    /**
+     * Opens the booking journal named by -Dbooking.journalDir, or returns null to keep
+     * bookings in memory only. -Dbooking.fsyncPolicy picks NEVER, INTERVAL or ALWAYS.
+     */
+    private static BookingJournal openJournal() {
+        String directory = System.getProperty(JOURNAL_DIR_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        FsyncPolicy policy = FsyncPolicy.valueOf(
+            System.getProperty(FSYNC_POLICY_PROPERTY, FsyncPolicy.INTERVAL.name()).toUpperCase());
+        try {
+            return new BookingJournal(Path.of(directory), policy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open booking journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Loads the newest snapshot and replays the journal written after it. Without a snapshot,
+     * replays the whole journal over the sample rooms.
+     */
+    private static void recoverFromJournal() {
+        try {
+            RoomSnapshot snapshot = journal == null ? null : SnapshotManager.loadLatest(journal.getDirectory());
+            if (snapshot != null) {
+                roomService.recover(snapshot);
+                return;
+            }
+            roomService.initializeRooms();
+            logger.info("Room database initialized with sample data");
+            roomService.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover from booking journal", e);
+        }
+    }
+
+    /**
+     * Snapshots room state every -Dbooking.snapshotIntervalSeconds (default 60) while a journal
+     * is open, or returns null when there is no journal to compact.
+     */
+    private static SnapshotManager startSnapshots() {
+        if (journal == null) {
+            return null;
+        }
+        long intervalSeconds = Long.getLong(SNAPSHOT_INTERVAL_PROPERTY, 60);
+        SnapshotManager snapshots = new SnapshotManager(journal, roomService::captureSnapshot);
+        snapshots.start(TimeUnit.SECONDS.toMillis(intervalSeconds));
+        return snapshots;
+    }
+
+    private static void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.error("Error closing booking journal: {}", e.getMessage());
+        }
     }
 
     /**
@@ -65,43 +171,50 @@ public class Main {
     }
 
     /**
-     * Processes booking requests concurrently using a thread pool.
+     * Processes booking requests concurrently in the given execution mode.
      * Handles booking confirmations and rejections with proper error handling.
      */
-    private static void processBookings(RoomDatabaseAccessService roomService, List<BookingRequest> requests) {
-        ExecutorService executor = Executors.newFixedThreadPool(5);
-        logger.info("Starting booking processing with thread pool size: 5");
+    private static void processBookings(RoomDatabaseAccessService roomService, List<BookingRequest> requests,
+                                        ExecutionMode mode) {
+        long start = System.nanoTime();
+        switch (mode) {
+            case PLATFORM_POOL -> {
+                logger.info("Starting booking processing with thread pool size: {}", POOL_SIZE);
+                runAndShutdown(Executors.newFixedThreadPool(POOL_SIZE), roomService, requests, mode);
+            }
+            case VIRTUAL_THREADS -> {
+                logger.info("Starting booking processing with one virtual thread per request");
+                runAndShutdown(Executors.newVirtualThreadPerTaskExecutor(), roomService, requests, mode);
+            }
+            case STRUCTURED -> {
+                logger.info("Starting booking processing with a {}s deadline", DEADLINE_SECONDS);
+                runWithDeadline(roomService, requests, mode);
+            }
+            case RING_BUFFER -> {
+                logger.info("Starting booking processing with single-writer ring buffers");
+                runOnRingBuffer(roomService, requests, mode);
+            }
+        }
+        metrics.recordExecutionRun(mode, requests.size(), System.nanoTime() - start);
 
-        for (BookingRequest request : requests) {
-            executor.submit(() -> {
-                Timer.Sample timer = metrics.startBookingTimer();
-                metrics.recordConcurrentBooking();
+        // Display final room availability status
+        logger.info("Final Room Status:");
+        roomService.getRoomSnapshot().forEach(room -> logger.info("{}", room));
+    }
 
-                try {
-                    boolean booked = roomService.bookRoom(request.getRoomNumber());
-                    if (booked) {
-                        metrics.recordSuccessfulBooking();
-                        logger.info("Successfully processed booking: Room {} for {}", 
-                            request.getRoomNumber(), request.getGuest());
-                    } else {
-                        metrics.recordFailedBooking();
-                        logger.warn("Failed to process booking: Room {} for {}", 
-                            request.getRoomNumber(), request.getGuest());
-                    }
-                } catch (Exception e) {
-                    metrics.recordFailedBooking();
-                    logger.error("Error processing booking: Room {} for {} - {}", 
-                        request.getRoomNumber(), request.getGuest(), e.getMessage());
-                } finally {
-                    metrics.stopBookingTimer(timer);
-                }
-            });
+    /**
+     * Submits every request to the executor, then shuts it down and waits for completion.
+     */
+    private static void runAndShutdown(ExecutorService executor, RoomDatabaseAccessService roomService,
+                                       List<BookingRequest> requests, ExecutionMode mode) {
+        for (BookingRequest request : requests) {
+            executor.submit(() -> processBooking(roomService, request, mode));
         }
 
         // Graceful shutdown with timeout
         executor.shutdown();
         try {
-            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+            if (!executor.awaitTermination(DEADLINE_SECONDS, TimeUnit.SECONDS)) {
                 logger.warn("Forcing thread pool shutdown after timeout");
                 executor.shutdownNow();
             }
@@ -110,21 +223,128 @@ public class Main {
             executor.shutdownNow();
             Thread.currentThread().interrupt();
         }
+    }
+
+    /**
+     * Runs every request on its own virtual thread and joins them all under one deadline.
+     * Requests that have not finished by the deadline are cancelled.
+     */
+    private static void runWithDeadline(RoomDatabaseAccessService roomService, List<BookingRequest> requests,
+                                        ExecutionMode mode) {
+        List<Callable<Void>> tasks = new ArrayList<>(requests.size());
+        for (BookingRequest request : requests) {
+            tasks.add(() -> {
+                processBooking(roomService, request, mode);
+                return null;
+            });
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Void>> results = executor.invokeAll(tasks, DEADLINE_SECONDS, TimeUnit.SECONDS);
+            long cancelled = results.stream().filter(Future::isCancelled).count();
+            if (cancelled > 0) {
+                logger.warn("Cancelled {} bookings still running at the deadline", cancelled);
+            }
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for bookings", e);
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        // Display final room availability status
-        logger.info("Final Room Status:");
-        roomService.getAllRooms().values().forEach(room -> 
-            logger.info("{}", room));
+    /**
+     * Queues every request into a RingBufferBookingEngine and waits for all outcomes.
+     * Outcomes are recorded as the writers complete them, so latency includes time spent queued.
+     */
+    private static void runOnRingBuffer(RoomDatabaseAccessService roomService, List<BookingRequest> requests,
+                                        ExecutionMode mode) {
+        List<CompletableFuture<BookingOutcome>> results = new ArrayList<>(requests.size());
+        try (RingBufferBookingEngine engine = new RingBufferBookingEngine(roomService)) {
+            for (BookingRequest request : requests) {
+                Timer.Sample timer = metrics.startBookingTimer();
+                metrics.recordConcurrentBooking();
+                results.add(engine.bookRoom(request.getRoomNumber()).whenComplete((outcome, error) -> {
+                    if (error != null) {
+                        logger.error("Error processing booking: Room {} for {} - {}",
+                            request.getRoomNumber(), request.getGuest(), error.getMessage());
+                    }
+                    recordOutcome(roomService, request, error == null ? outcome : BookingOutcome.ERROR, timer, mode);
+                }));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .get(DEADLINE_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // Already logged and counted per request
+        } catch (TimeoutException e) {
+            logger.warn("Ring buffer bookings still running after {}s", DEADLINE_SECONDS);
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for bookings", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Books a single request and records its outcome and processing time.
+     */
+    private static void processBooking(RoomDatabaseAccessService roomService, BookingRequest request,
+                                       ExecutionMode mode) {
+        Timer.Sample timer = metrics.startBookingTimer();
+        metrics.recordConcurrentBooking();
+
+        BookingOutcome outcome = BookingOutcome.ERROR;
+        try {
+            outcome = roomService.tryBookRoom(request.getRoomNumber());
+        } catch (Exception e) {
+            logger.error("Error processing booking: Room {} for {} - {}", 
+                request.getRoomNumber(), request.getGuest(), e.getMessage());
+        } finally {
+            recordOutcome(roomService, request, outcome, timer, mode);
+        }
+    }
+
+    /**
+     * Records a finished booking's outcome and processing time.
+     */
+    private static void recordOutcome(RoomDatabaseAccessService roomService, BookingRequest request,
+                                      BookingOutcome outcome, Timer.Sample timer, ExecutionMode mode) {
+        if (outcome == BookingOutcome.BOOKED) {
+            metrics.recordSuccessfulBooking();
+            logger.info("Successfully processed booking: Room {} for {}", 
+                request.getRoomNumber(), request.getGuest());
+        } else {
+            metrics.recordFailedBooking();
+            if (outcome != BookingOutcome.ERROR) {
+                logger.warn("Failed to process booking: Room {} for {}", 
+                    request.getRoomNumber(), request.getGuest());
+            }
+        }
+        long nanos = metrics.stopBookingTimer(timer, mode);
+        Room room = roomService.getRoom(request.getRoomNumber());
+        metrics.recordBookingLatency(nanos, outcome, room == null ? null : room.getRoomType(), 0);
     }
 
     /**
      * Reports booking metrics to the console.
      */
-    private static void reportMetrics() {
+    private static void reportMetrics(List<ExecutionMode> modes) {
         logger.info("===== Booking Metrics Report =====");
-        logger.info("Success Rate: {:.2f}%", metrics.getSuccessRate() * 100);
-        logger.info("Average Processing Time: {:.2f}ms", metrics.getAverageProcessingTime());
+        logger.info("Success Rate: {}%", String.format("%.2f", metrics.getSuccessRate() * 100));
+        logger.info("Average Processing Time: {}ms", String.format("%.2f", metrics.getAverageProcessingTime()));
         logger.info("Concurrent Booking Attempts: {}", metrics.getConcurrentBookingCount());
+        for (LatencyWindow window : LatencyWindow.values()) {
+            logger.info("Latency over {}: p50 {}ms, p90 {}ms, p99 {}ms, p99.9 {}ms", window.tag(),
+                String.format("%.3f", metrics.getLatencyPercentile(window, 0.5)),
+                String.format("%.3f", metrics.getLatencyPercentile(window, 0.9)),
+                String.format("%.3f", metrics.getLatencyPercentile(window, 0.99)),
+                String.format("%.3f", metrics.getLatencyPercentile(window, 0.999)));
+        }
+        for (BookingOutcome outcome : BookingOutcome.values()) {
+            logger.info("{} bookings: {}", outcome, metrics.getBookingCount(outcome));
+        }
+        for (ExecutionMode mode : modes) {
+            logger.info("{}: {} bookings/s, p99 {}ms", mode,
+                String.format("%.1f", metrics.getThroughput(mode)),
+                String.format("%.3f", metrics.getP99ProcessingTime(mode)));
+        }
         logger.info("================================");
     }
 
@@ -143,29 +363,57 @@ public class Main {
     }
 
     /**
-     * Reads booking requests from a JSON file and adds them to the processing queue.
-     * Implements a delay between requests to simulate real-world booking patterns.
+     * Streams booking requests from a JSON array or NDJSON file and books them in batches.
+     * A reader thread parses the file into a bounded queue and blocks when booking falls behind,
+     * so memory use stays flat regardless of file size.
+     * Returns the number of requests processed.
+     *
+     * @throws UncheckedIOException if the file cannot be read; requests read before the failure
+     *     are still booked
      */
-    public static void readBookingRequests(String filename) {
-        ObjectMapper mapper = new ObjectMapper();
+    public static long readBookingRequests(String filename) {
+        BookingIngestion ingestion = new BookingIngestion(INGESTION_QUEUE_CAPACITY);
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread reader = Thread.ofPlatform().name("booking-reader").daemon().start(() -> {
+            try {
+                ingestion.ingest(Path.of(filename));
+            } catch (IOException e) {
+                failure.set(e);
+            } catch (InterruptedException e) {
+                logger.error("Interrupted while reading booking requests", e);
+                Thread.currentThread().interrupt();
+            }
+        });
 
+        long processed = 0;
+        List<BookingRequest> batch = new ArrayList<>(INGESTION_BATCH_SIZE);
         try {
-            List<BookingRequest> requests = mapper.readValue(new File(filename), new TypeReference<List<BookingRequest>>() {
-            });
-
-            for (BookingRequest request : requests) {
-                try {
-                    incomingRequests.add(request);
-                    Thread.sleep(2000); // Simulate real-world booking delay
-                } catch (InterruptedException e) {
-                    logger.error("Interrupted while reading booking requests", e);
-                    Thread.currentThread().interrupt();
-                    break;
+            while (ingestion.drainTo(batch, INGESTION_BATCH_SIZE) > 0) {
+                Timer.Sample timer = metrics.startBookingTimer();
+                for (BookingOutcome outcome : roomService.bookRooms(batch)) {
+                    if (outcome == BookingOutcome.BOOKED) {
+                        metrics.recordSuccessfulBooking();
+                    } else {
+                        metrics.recordFailedBooking();
+                    }
                 }
+                metrics.stopBookingTimer(timer);
+                processed += batch.size();
+                batch.clear();
             }
+            reader.join();
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while processing booking requests", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            // Unblocks a reader stuck on a full queue if booking stopped early
+            reader.interrupt();
+        }
 
-        } catch (IOException e) {
-            logger.error("Error reading booking requests: {}", e.getMessage());
+        logger.info("Processed {} booking requests from {}", processed, filename);
+        if (failure.get() != null) {
+            throw new UncheckedIOException("Could not read booking requests from " + filename, failure.get());
         }
+        return processed;
     }
 }
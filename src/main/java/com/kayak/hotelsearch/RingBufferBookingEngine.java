@@ -0,0 +1,268 @@
+package com.kayak.hotelsearch;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Booking engine in which every room has exactly one writer thread.
+ *
+ * Rooms are split into partitions by room number. Each partition owns a pre-allocated ring
+ * of command slots and a writer thread that applies the commands to the RoomDatabaseAccessService
+ * strictly in the order they were claimed, so bookings and releases of one room never race and
+ * their outcome is deterministic for a given submission order. Producers claim a slot with a
+ * single atomic increment and publish it by stamping the slot's round number; no locks are
+ * taken on the way in. Commands go through the service's unlogged booking and release paths,
+ * which without a journal are a single compare-and-set on the room's counter.
+ *
+ * The writer takes every published command in one batch, applies them all, frees their slots
+ * and only then completes the callers' futures, so a burst of requests costs one wake-up and
+ * callbacks that submit more commands cannot block the writer on its own full ring. A writer
+ * with nothing to do parks until a producer wakes it; producers unpark it only after it has
+ * announced that it is parked, so a busy writer costs them one volatile read. Futures
+ * are completed on the writer thread; callers doing real work in callbacks should use the
+ * *Async variants.
+ *
+ * Submissions must have stopped before close() is called.
+ */
+public class RingBufferBookingEngine implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RingBufferBookingEngine.class);
+    public static final int DEFAULT_RING_SIZE = 1024;
+
+    private final RoomDatabaseAccessService service;
+    private final Partition[] partitions;
+    private volatile boolean running = true;
+
+    public RingBufferBookingEngine(RoomDatabaseAccessService service) {
+        this(service, Runtime.getRuntime().availableProcessors(), DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * Starts one writer thread per partition, each with a ring of ringSize slots.
+     *
+     * @throws IllegalArgumentException if partitionCount is not positive or ringSize is not a power of two
+     */
+    public RingBufferBookingEngine(RoomDatabaseAccessService service, int partitionCount, int ringSize) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Partition count must be positive");
+        }
+        if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two");
+        }
+        this.service = service;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(ringSize);
+            Thread writer = new Thread(partitions[i]::run, "booking-writer-" + i);
+            writer.setDaemon(true);
+            partitions[i].writer = writer;
+            writer.start();
+        }
+    }
+
+    /**
+     * Queues a booking of one unit of the room. The future completes with the booking's outcome.
+     *
+     * @throws IllegalStateException if the engine has been closed
+     */
+    public CompletableFuture<BookingOutcome> bookRoom(int roomNumber) {
+        CompletableFuture<BookingOutcome> result = new CompletableFuture<>();
+        partitionFor(roomNumber).publish(Command.BOOK, roomNumber, result);
+        return result;
+    }
+
+    /**
+     * Queues a release of one unit of the room. The future completes once it has been applied.
+     *
+     * @throws IllegalStateException if the engine has been closed
+     */
+    public CompletableFuture<Void> releaseRoom(int roomNumber) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        partitionFor(roomNumber).publish(Command.RELEASE, roomNumber, result);
+        return result;
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Stops accepting commands, lets the writers apply everything already queued and waits for them.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.writer);
+        }
+        try {
+            for (Partition partition : partitions) {
+                partition.writer.join();
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while waiting for booking writers to finish");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Partition partitionFor(int roomNumber) {
+        return partitions[Math.floorMod(roomNumber, partitions.length)];
+    }
+
+    private Object apply(Command command, int roomNumber) {
+        return switch (command) {
+            case BOOK -> service.applyBooking(roomNumber);
+            case RELEASE -> {
+                service.applyRelease(roomNumber);
+                yield null;
+            }
+        };
+    }
+
+    private enum Command {
+        BOOK,
+        RELEASE
+    }
+
+    /**
+     * One pre-allocated command, reused every time the ring wraps.
+     */
+    private static final class Slot {
+        Command command;
+        int roomNumber;
+        CompletableFuture<?> result;
+    }
+
+    private final class Partition {
+        private final Slot[] slots;
+        private final int mask;
+        private final int roundShift;
+        // Round number of the command last published into each slot, -1 before the first
+        private final AtomicIntegerArray published;
+        // Highest sequence handed to a producer
+        private final AtomicLong claimed = new AtomicLong(-1);
+        // Highest sequence the writer has finished with; slots up to it can be reused
+        private final AtomicLong consumed = new AtomicLong(-1);
+        private Thread writer;
+        // Set by the writer before it parks, so producers know to wake it
+        private volatile boolean parked;
+
+        // Writer-only scratch space for the batched completions
+        private final CompletableFuture<?>[] completions;
+        private final Object[] outcomes;
+        private final Throwable[] failures;
+
+        Partition(int ringSize) {
+            this.slots = new Slot[ringSize];
+            for (int i = 0; i < ringSize; i++) {
+                slots[i] = new Slot();
+            }
+            this.mask = ringSize - 1;
+            this.roundShift = Integer.numberOfTrailingZeros(ringSize);
+            this.published = new AtomicIntegerArray(ringSize);
+            for (int i = 0; i < ringSize; i++) {
+                published.set(i, -1);
+            }
+            this.completions = new CompletableFuture<?>[ringSize];
+            this.outcomes = new Object[ringSize];
+            this.failures = new Throwable[ringSize];
+        }
+
+        void publish(Command command, int roomNumber, CompletableFuture<?> result) {
+            if (!running) {
+                throw new IllegalStateException("Booking engine is closed");
+            }
+            long sequence = claimed.incrementAndGet();
+            // Wait for the writer to free the slot this sequence wraps onto
+            while (sequence - slots.length > consumed.get()) {
+                LockSupport.parkNanos(1);
+            }
+            int index = (int) (sequence & mask);
+            Slot slot = slots[index];
+            slot.command = command;
+            slot.roomNumber = roomNumber;
+            slot.result = result;
+            // The volatile stamp publishes the plain writes above to the writer
+            published.set(index, (int) (sequence >>> roundShift));
+            if (parked) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        void run() {
+            long next = 0;
+            while (true) {
+                long available = highestPublished(next);
+                if (available >= next) {
+                    applyBatch(next, available);
+                    next = available + 1;
+                } else if (!running && next > claimed.get()) {
+                    return;
+                } else {
+                    awaitPublished(next);
+                }
+            }
+        }
+
+        /**
+         * Parks until the command at sequence may have been published, or the engine closes.
+         */
+        private void awaitPublished(long sequence) {
+            parked = true;
+            // Checked again after raising the flag: a producer that stamped its slot before seeing
+            // the flag is caught here, and one that stamps it afterwards will unpark this thread
+            if (!isPublished(sequence) && (running || sequence <= claimed.get())) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+
+        private long highestPublished(long next) {
+            long limit = next + slots.length;
+            long sequence = next;
+            while (sequence < limit && isPublished(sequence)) {
+                sequence++;
+            }
+            return sequence - 1;
+        }
+
+        private boolean isPublished(long sequence) {
+            return published.get((int) (sequence & mask)) == (int) (sequence >>> roundShift);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void applyBatch(long first, long last) {
+            int count = (int) (last - first + 1);
+            for (int i = 0; i < count; i++) {
+                Slot slot = slots[(int) ((first + i) & mask)];
+                completions[i] = slot.result;
+                try {
+                    outcomes[i] = apply(slot.command, slot.roomNumber);
+                } catch (RuntimeException e) {
+                    logger.error("Error applying {} for room {}: {}", slot.command, slot.roomNumber, e.getMessage());
+                    failures[i] = e;
+                }
+                slot.result = null;
+            }
+            // Free the slots before running callers' callbacks, which may publish again
+            consumed.set(last);
+
+            for (int i = 0; i < count; i++) {
+                CompletableFuture<Object> result = (CompletableFuture<Object>) completions[i];
+                if (failures[i] != null) {
+                    result.completeExceptionally(failures[i]);
+                } else {
+                    result.complete(outcomes[i]);
+                }
+                completions[i] = null;
+                outcomes[i] = null;
+                failures[i] = null;
+            }
+        }
+    }
+}
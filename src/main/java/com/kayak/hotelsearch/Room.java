@@ -1,16 +1,30 @@
 package com.kayak.hotelsearch;
 
 import com.kayak.hotelsearch.room.RoomType;
-
+import com.kayak.hotelsearch.room.StayCalendar;
+import com.kayak.hotelsearch.room.Waitlist;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hotel room and its inventory.
+ * The undated inventory counter is updated with compare-and-set, so concurrent bookings
+ * never oversell without any locking. Dated stays are tracked by the room's StayCalendar.
+ * Whether the room is available is derived from the counter rather than stored beside it,
+ * so it can never disagree with the inventory; setAvailable(false) withdraws the room until
+ * it is set available again or a unit is released.
+ */
 public class Room {
     private int roomNumber;
-    private boolean isAvailable;
+    private volatile boolean isAvailable;
     private String currentGuest;
     private String checkInDate;
     private String checkOutDate;
-    private int availableRooms;
+    private final AtomicInteger availableRooms;
     private RoomType roomType;
     private double price;
+    private final StayCalendar calendar;
+    private final Waitlist waitlist = new Waitlist();
 
     public Room(int roomNumber) {
         this.roomNumber = roomNumber;
@@ -18,7 +32,8 @@ public class Room {
         this.currentGuest = null;
         this.checkInDate = null;
         this.checkOutDate = null;
-        this.availableRooms = 1;
+        this.availableRooms = new AtomicInteger(1);
+        this.calendar = new StayCalendar(1);
     }
 
     public Room(int roomNumber, String currentGuest, int availableRooms) {
@@ -27,7 +42,8 @@ public class Room {
         this.currentGuest = currentGuest;
         this.checkInDate = null;
         this.checkOutDate = null;
-        this.availableRooms = availableRooms;
+        this.availableRooms = new AtomicInteger(availableRooms);
+        this.calendar = new StayCalendar(availableRooms);
     }
 
     public Room(int roomNumber, RoomType roomType, double price, boolean isAvailable) {
@@ -38,7 +54,20 @@ public class Room {
         this.currentGuest = null;
         this.checkInDate = null;
         this.checkOutDate = null;
-        this.availableRooms = 1;
+        this.availableRooms = new AtomicInteger(1);
+        this.calendar = new StayCalendar(1);
+    }
+
+    public Room(int roomNumber, RoomType roomType, double price, String currentGuest, int availableRooms) {
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.price = price;
+        this.isAvailable = availableRooms > 0;
+        this.currentGuest = currentGuest;
+        this.checkInDate = null;
+        this.checkOutDate = null;
+        this.availableRooms = new AtomicInteger(availableRooms);
+        this.calendar = new StayCalendar(availableRooms);
     }
 
     public int getRoomNumber() {
@@ -46,7 +75,7 @@ public class Room {
     }
 
     public boolean isAvailable() {
-        return isAvailable;
+        return isAvailable && availableRooms.get() > 0;
     }
 
     public void setAvailable(boolean available) {
@@ -78,32 +107,95 @@ public class Room {
     }
 
     public int getAvailableRooms() {
-        return availableRooms;
+        return availableRooms.get();
     }
 
     public void setAvailableRooms(int availableRooms) {
-        this.availableRooms = availableRooms;
+        this.availableRooms.set(availableRooms);
     }
 
+    /**
+     * Takes one unit of inventory if any is left.
+     * Returns false immediately when the room is sold out; a failed compare-and-set is
+     * retried only while inventory remains, so the loop never spins on an empty room.
+     */
     public boolean bookRoom() {
-        if (availableRooms > 0) {
-            availableRooms--;
-            if (availableRooms == 0) {
-                isAvailable = false;
+        int available;
+        do {
+            available = availableRooms.get();
+            if (available <= 0) {
+                return false;
             }
-            return true;
-        }
-        return false;
+        } while (!availableRooms.compareAndSet(available, available - 1));
+        return true;
+    }
+
+    /**
+     * Takes up to the requested number of units in a single compare-and-set.
+     * Returns how many units were granted, which is 0 when the room is sold out.
+     */
+    public int bookRooms(int requested) {
+        int available;
+        int granted;
+        do {
+            available = availableRooms.get();
+            granted = Math.min(requested, available);
+            if (granted <= 0) {
+                return 0;
+            }
+        } while (!availableRooms.compareAndSet(available, available - granted));
+        return granted;
+    }
+
+    /**
+     * Returns several units of inventory at once.
+     */
+    public void releaseRooms(int units) {
+        isAvailable = true;
+        availableRooms.addAndGet(units);
     }
 
     public void releaseRoom() {
         isAvailable = true;
-        availableRooms++;
+        availableRooms.incrementAndGet();
         currentGuest = null;
         checkInDate = null;
         checkOutDate = null;
     }
 
+    /**
+     * Books a unit of this room for the nights from checkIn up to (but excluding) checkOut.
+     * Returns false if every unit already has an overlapping stay.
+     */
+    public boolean bookStay(LocalDate checkIn, LocalDate checkOut) {
+        return calendar.book(checkIn.toEpochDay(), checkOut.toEpochDay()) >= 0;
+    }
+
+    /**
+     * Cancels a stay previously booked with exactly these dates.
+     */
+    public boolean releaseStay(LocalDate checkIn, LocalDate checkOut) {
+        return calendar.release(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * Returns true if at least one unit of this room is free for the whole stay.
+     */
+    public boolean isAvailable(LocalDate checkIn, LocalDate checkOut) {
+        return calendar.isAvailable(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    public StayCalendar getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * Returns the queue of requests waiting for this room's inventory.
+     */
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+
     public RoomType getRoomType() {
         return roomType;
     }
@@ -1,31 +1,92 @@
 package com.kayak.hotelsearch;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import com.kayak.hotelsearch.booking.BackoffPolicy;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.HoldId;
+import com.kayak.hotelsearch.booking.IdempotencyCache;
+import com.kayak.hotelsearch.booking.StripedReadWriteLock;
+import com.kayak.hotelsearch.booking.TimingWheel;
+import com.kayak.hotelsearch.journal.BookingJournal;
+import com.kayak.hotelsearch.journal.JournalRecord;
+import com.kayak.hotelsearch.journal.RoomSnapshot;
+import com.kayak.hotelsearch.room.AvailabilityQueryExecutor;
+import com.kayak.hotelsearch.room.OccupancyIndex;
+import com.kayak.hotelsearch.room.RoomQuery;
+import com.kayak.hotelsearch.room.RoomStateSnapshot;
+import com.kayak.hotelsearch.room.RoomTable;
+import com.kayak.hotelsearch.room.RoomType;
+import com.kayak.hotelsearch.room.Waitlist;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Service layer for room database operations.
- * Provides thread-safe access to room data using concurrent collections.
+ * Provides thread-safe access to room data through a lock-free RoomTable.
  */
 public class RoomDatabaseAccessService {
     private static final Logger logger = LoggerFactory.getLogger(RoomDatabaseAccessService.class);
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 100;
 
-    private final Map<Integer, Room> rooms;
-    private final ReadWriteLock lock;
+    /** Default backoff for bookRoomAsync: jittered exponential from 10 ms up to 1 s. */
+    public static final BackoffPolicy DEFAULT_BACKOFF = BackoffPolicy.exponential(10, 1_000).withJitter();
+    /** Default overall deadline for bookRoomAsync. */
+    public static final Duration DEFAULT_ASYNC_DEADLINE = Duration.ofSeconds(5);
+
+    private static final long HOLD_TICK_MILLIS = 10;
+    private static final int DEDUP_CAPACITY = 100_000;
+    private static final Duration DEDUP_TTL = Duration.ofMinutes(10);
+
+    // Shared by every service: pending retries and waitlist timeouts are timer entries here, not parked threads
+    private static final ScheduledThreadPoolExecutor retryScheduler = createRetryScheduler();
+    // Shared by every service and sized on its own (-Dquery.parallelism), apart from booking threads
+    private static final AvailabilityQueryExecutor queryExecutor = new AvailabilityQueryExecutor(
+        Integer.getInteger("query.parallelism", Runtime.getRuntime().availableProcessors()));
+
+    private final RoomTable rooms;
+    // Only used with a journal, to cut every room at one journal position
+    private final StripedReadWriteLock cutLock;
+    private final BookingJournal journal;
+    private final OccupancyIndex occupancy = new OccupancyIndex();
+    private final IdempotencyCache recentRequests = new IdempotencyCache(DEDUP_CAPACITY, DEDUP_TTL);
+    private final Map<HoldId, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong nextHoldId = new AtomicLong(1);
+    private final TimingWheel<Hold> holdExpiry =
+        new TimingWheel<>(TimeUnit.MILLISECONDS.toNanos(HOLD_TICK_MILLIS), System.nanoTime());
+    private final Object holdTickerLock = new Object();
+    private ScheduledFuture<?> holdTicker;
 
     /**
      * Initializes the room database with thread-safe collections.
-     * Uses ConcurrentHashMap for room storage and ReadWriteLock for synchronization.
+     * Uses a RoomTable for room storage; bookings are lock-free per room.
      */
     public RoomDatabaseAccessService() {
-        this.rooms = new ConcurrentHashMap<>();
-        this.lock = new ReentrantReadWriteLock();
+        this(null);
+    }
+
+    /**
+     * Initializes the room database and writes every booking mutation to the given journal.
+     * A null journal keeps all state in memory only.
+     */
+    public RoomDatabaseAccessService(BookingJournal journal) {
+        this.rooms = new RoomTable();
+        this.journal = journal;
+        this.cutLock = journal == null ? null
+            : new StripedReadWriteLock(4 * Runtime.getRuntime().availableProcessors());
     }
 
     /**
@@ -41,10 +102,13 @@ public class RoomDatabaseAccessService {
 
     /**
      * Adds a new room to the database.
-     * Thread-safe operation using ConcurrentHashMap.
+     * Thread-safe operation; replaces any room with the same number.
+     *
+     * @throws IllegalArgumentException if the room number is negative
      */
     public void addRoom(Room room) {
-        rooms.put(room.getRoomNumber(), room);
+        occupancy.addRoom(room);
+        rooms.put(room);
     }
 
     /**
@@ -56,64 +120,779 @@ public class RoomDatabaseAccessService {
     }
 
     /**
-     * Attempts to book a room by its number with retry mechanism.
+     * Attempts to book a room by its number.
      * Returns true if booking was successful, false otherwise.
      */
     public boolean bookRoom(int roomNumber) {
-        int retries = 0;
-        while (retries < MAX_RETRIES) {
-            try {
-                Room room = rooms.get(roomNumber);
-                if (room == null) {
-                    logger.warn("Room {} not found", roomNumber);
-                    return false;
-                }
-                
-                boolean booked = room.bookRoom();
-                if (booked) {
-                    logger.info("Successfully booked room {}", roomNumber);
-                    return true;
-                }
-                
-                retries++;
-                if (retries < MAX_RETRIES) {
-                    logger.info("Retrying booking for room {} (attempt {}/{})", roomNumber, retries + 1, MAX_RETRIES);
-                    Thread.sleep(RETRY_DELAY_MS);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.error("Booking interrupted for room {}", roomNumber);
+        return tryBookRoom(roomNumber) == BookingOutcome.BOOKED;
+    }
+
+    /**
+     * Attempts to take one unit of a room's inventory.
+     * The room's counter is updated with compare-and-set, so a sold-out room is reported
+     * straight away instead of being polled.
+     */
+    public BookingOutcome tryBookRoom(int roomNumber) {
+        BookingOutcome outcome = applyBooking(roomNumber);
+        switch (outcome) {
+            case BOOKED -> logger.info("Successfully booked room {}", roomNumber);
+            case SOLD_OUT -> logger.warn("Room {} is sold out", roomNumber);
+            case NOT_FOUND -> logger.warn("Room {} not found", roomNumber);
+        }
+        return outcome;
+    }
+
+    /**
+     * Takes one unit of a room's inventory exactly as tryBookRoom does, but without logging,
+     * for callers such as RingBufferBookingEngine that apply commands in bulk. Without a journal
+     * this is a single compare-and-set.
+     */
+    BookingOutcome applyBooking(int roomNumber) {
+        Room room = rooms.get(roomNumber);
+        if (room == null) {
+            return BookingOutcome.NOT_FOUND;
+        }
+
+        boolean booked = inJournalOrder(room, () -> {
+            if (!room.bookRoom()) {
                 return false;
-            } catch (Exception e) {
-                logger.error("Error booking room {}: {}", roomNumber, e.getMessage());
+            }
+            journalBooking(JournalRecord.Type.BOOK, roomNumber, 1, room::releaseRoom);
+            return true;
+        });
+        if (!booked) {
+            return BookingOutcome.SOLD_OUT;
+        }
+        rooms.markChanged(roomNumber);
+        return BookingOutcome.BOOKED;
+    }
+
+    /**
+     * Books a room without blocking, retrying a sold-out room with the default backoff
+     * until DEFAULT_ASYNC_DEADLINE passes.
+     */
+    public CompletableFuture<BookingOutcome> bookRoomAsync(int roomNumber) {
+        return bookRoomAsync(roomNumber, DEFAULT_BACKOFF, DEFAULT_ASYNC_DEADLINE);
+    }
+
+    /**
+     * Books a room without blocking the caller.
+     * The first attempt runs on the calling thread. While the room is sold out, further
+     * attempts are scheduled on a shared scheduler after each backoff delay. The future
+     * completes with SOLD_OUT once the next retry would land past the deadline, and it
+     * completes exceptionally if an attempt throws. Cancelling the future cancels any pending
+     * retry, so a cancelled request never books a room afterwards.
+     */
+    public CompletableFuture<BookingOutcome> bookRoomAsync(int roomNumber, BackoffPolicy backoff, Duration deadline) {
+        PendingBooking pending = new PendingBooking(roomNumber, backoff, System.nanoTime() + deadline.toNanos());
+        pending.result.whenComplete((outcome, error) -> pending.cancelRetry());
+        attempt(pending);
+        return pending.result;
+    }
+
+    private void attempt(PendingBooking pending) {
+        if (pending.result.isDone()) {
+            return;
+        }
+        BookingOutcome outcome;
+        try {
+            outcome = tryBookRoom(pending.roomNumber);
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+            return;
+        }
+        if (outcome != BookingOutcome.SOLD_OUT) {
+            // A booking that lands after cancellation is handed back
+            if (!pending.result.complete(outcome) && outcome == BookingOutcome.BOOKED) {
+                releaseRoom(pending.roomNumber);
+            }
+            return;
+        }
+
+        long delayMillis = pending.backoff.delayMillis(++pending.retries);
+        if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) - pending.deadlineNanos > 0) {
+            pending.result.complete(BookingOutcome.SOLD_OUT);
+            return;
+        }
+        pending.retry = retryScheduler.schedule(() -> attempt(pending), delayMillis, TimeUnit.MILLISECONDS);
+        if (pending.result.isDone()) {
+            pending.cancelRetry();
+        }
+    }
+
+    /**
+     * State of one bookRoomAsync call. Attempts for a booking never overlap, so retries and
+     * retry are only written by the attempt currently running.
+     */
+    private static final class PendingBooking {
+        final int roomNumber;
+        final BackoffPolicy backoff;
+        final long deadlineNanos;
+        final CompletableFuture<BookingOutcome> result = new CompletableFuture<>();
+        int retries;
+        volatile ScheduledFuture<?> retry;
+
+        PendingBooking(int roomNumber, BackoffPolicy backoff, long deadlineNanos) {
+            this.roomNumber = roomNumber;
+            this.backoff = backoff;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        void cancelRetry() {
+            ScheduledFuture<?> pendingRetry = retry;
+            if (pendingRetry != null) {
+                pendingRetry.cancel(false);
+            }
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createRetryScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+                Thread thread = new Thread(runnable, "booking-retry");
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Cancelled retries leave the timer queue straight away instead of at their due time
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Books a batch of requests in one pass and returns their outcomes in input order.
+     * Requests are grouped by room number, and each group takes its inventory with a single
+     * compare-and-set, so the cost is one room lookup per distinct room rather than per request.
+     * Within a group, earlier requests win when there is not enough inventory for all of them.
+     */
+    public List<BookingOutcome> bookRooms(Collection<com.kayak.hotelsearch.booking.BookingRequest> requests) {
+        // Sort (room number, input position) pairs so each room's requests form one run
+        long[] keys = new long[requests.size()];
+        int position = 0;
+        for (com.kayak.hotelsearch.booking.BookingRequest request : requests) {
+            keys[position] = ((long) request.getRoomNumber() << 32) | position;
+            position++;
+        }
+        Arrays.sort(keys);
+
+        BookingOutcome[] outcomes = new BookingOutcome[keys.length];
+        int start = 0;
+        while (start < keys.length) {
+            int roomNumber = (int) (keys[start] >> 32);
+            int end = start + 1;
+            while (end < keys.length && (int) (keys[end] >> 32) == roomNumber) {
+                end++;
+            }
+
+            Room room = rooms.get(roomNumber);
+            int granted = room == null ? 0 : bookUnits(room, end - start);
+            BookingOutcome shortfall = room == null ? BookingOutcome.NOT_FOUND : BookingOutcome.SOLD_OUT;
+            for (int i = start; i < end; i++) {
+                outcomes[(int) keys[i]] = i - start < granted ? BookingOutcome.BOOKED : shortfall;
+            }
+
+            if (room == null) {
+                logger.warn("Room {} not found for {} batched requests", roomNumber, end - start);
+            } else {
+                logger.info("Batch booked {} of {} requests for room {}", granted, end - start, roomNumber);
+            }
+            start = end;
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Takes up to the requested units of a room and journals what was granted.
+     */
+    private int bookUnits(Room room, int requested) {
+        int granted = inJournalOrder(room, () -> {
+            int units = room.bookRooms(requested);
+            if (units > 0) {
+                journalBooking(JournalRecord.Type.BOOK, room.getRoomNumber(), units,
+                    () -> room.releaseRooms(units));
+            }
+            return units;
+        });
+        if (granted > 0) {
+            rooms.markChanged(room.getRoomNumber());
+        }
+        return granted;
+    }
+
+    /**
+     * Books a room for the nights from checkIn up to (but excluding) checkOut.
+     * Returns true if a unit of the room was free for the whole stay, false if the room
+     * doesn't exist or every unit has an overlapping stay.
+     *
+     * @throws IllegalArgumentException if checkIn is not before checkOut
+     */
+    public boolean bookRoom(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        validateStay(checkIn, checkOut);
+        Room room = rooms.get(roomNumber);
+        if (room == null) {
+            logger.warn("Room {} not found", roomNumber);
+            return false;
+        }
+
+        boolean booked = inJournalOrder(room, () -> {
+            if (!room.bookStay(checkIn, checkOut)) {
                 return false;
             }
+            journalStay(JournalRecord.Type.BOOK_STAY, roomNumber, checkIn, checkOut,
+                () -> room.releaseStay(checkIn, checkOut));
+            return true;
+        });
+        if (booked) {
+            rooms.markChanged(roomNumber);
+            occupancy.update(room, checkIn.toEpochDay(), checkOut.toEpochDay());
+        }
+
+        if (booked) {
+            logger.info("Successfully booked room {} from {} to {}", roomNumber, checkIn, checkOut);
+            return true;
         }
-        
-        logger.warn("Failed to book room {} after {} attempts", roomNumber, MAX_RETRIES);
+
+        logger.warn("Room {} has no unit free from {} to {}", roomNumber, checkIn, checkOut);
         return false;
     }
 
+    /**
+     * Books the room and stay described by a booking request.
+     * Uses the calendar dates of the request's check-in and check-out. A request whose ID was
+     * seen recently gets its original result back without booking again.
+     *
+     * @throws IllegalArgumentException if the request does not span at least one night
+     */
+    public boolean bookRoom(BookingRequest request) {
+        BookingOutcome outcome = bookRoom(request.getRequestId(), request.getRoomNumber(),
+            request.getCheckIn().toLocalDate(), request.getCheckOut().toLocalDate());
+        return outcome == BookingOutcome.BOOKED;
+    }
+
+    /**
+     * Books a stay at most once per request ID, like bookRoom(UUID, int).
+     *
+     * @throws IllegalArgumentException if checkIn is not before checkOut
+     */
+    public BookingOutcome bookRoom(UUID requestId, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        validateStay(checkIn, checkOut);
+        return recentRequests.execute(requestId, () -> {
+            if (bookRoom(roomNumber, checkIn, checkOut)) {
+                return BookingOutcome.BOOKED;
+            }
+            return rooms.get(roomNumber) == null ? BookingOutcome.NOT_FOUND : BookingOutcome.SOLD_OUT;
+        });
+    }
+
+    /**
+     * Takes one unit of a room's inventory at most once per request ID.
+     * A client retrying after a timeout sends the same ID and gets the original outcome back
+     * without touching inventory, as long as the ID is still in the dedup cache (the last
+     * 100,000 requests, for up to 10 minutes).
+     */
+    public BookingOutcome bookRoom(UUID requestId, int roomNumber) {
+        return recentRequests.execute(requestId, () -> tryBookRoom(roomNumber));
+    }
+
+    /**
+     * Returns true if the room exists and a unit is free for the whole stay.
+     *
+     * @throws IllegalArgumentException if checkIn is not before checkOut
+     */
+    public boolean isAvailable(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        validateStay(checkIn, checkOut);
+        Room room = rooms.get(roomNumber);
+        return room != null && room.isAvailable(checkIn, checkOut);
+    }
+
+    /**
+     * Returns, in ascending order, the number of every room with a unit free for the nights
+     * from checkIn up to (but excluding) checkOut. A null roomType matches every room.
+     * Answered from the occupancy bitmaps rather than by checking each room's calendar.
+     *
+     * @throws IllegalArgumentException if checkIn is not before checkOut
+     */
+    public int[] findAvailableRooms(LocalDate checkIn, LocalDate checkOut, RoomType roomType) {
+        validateStay(checkIn, checkOut);
+        return occupancy.findAvailable(checkIn.toEpochDay(), checkOut.toEpochDay(), roomType);
+    }
+
     /**
      * Releases a previously booked room.
      * No-op if room doesn't exist.
      */
     public void releaseRoom(int roomNumber) {
+        Room room = rooms.get(roomNumber);
+        if (room == null) {
+            logger.warn("Attempted to release non-existent room {}", roomNumber);
+            return;
+        }
+
+        if (applyRelease(room)) {
+            logger.info("Handed released room {} to a waiting request", roomNumber);
+        } else {
+            logger.info("Released room {}", roomNumber);
+        }
+    }
+
+    /**
+     * Releases one unit of a room exactly as releaseRoom does, but without logging.
+     * Does nothing if the room doesn't exist.
+     */
+    void applyRelease(int roomNumber) {
         Room room = rooms.get(roomNumber);
         if (room != null) {
+            applyRelease(room);
+        }
+    }
+
+    /**
+     * Returns true if the unit was handed to a waiting request instead of going back to inventory.
+     */
+    private boolean applyRelease(Room room) {
+        // The unit goes straight to the oldest waiting request; inventory and journal are unchanged
+        if (!room.getWaitlist().isEmpty() && room.getWaitlist().handOff()) {
+            return true;
+        }
+
+        releaseUnit(room);
+        // A request may have joined the waitlist after the hand-off check
+        drainWaitlist(room);
+        return false;
+    }
+
+    /**
+     * Books a room, or waits in the room's FIFO waitlist if it is sold out.
+     * The future completes with BOOKED as soon as a release hands a unit over, or with
+     * SOLD_OUT after maxWait. Callbacks can be attached with the usual CompletableFuture
+     * methods. Cancelling the future takes the request off the waitlist.
+     */
+    public CompletableFuture<BookingOutcome> bookRoomOrWait(int roomNumber, Duration maxWait) {
+        BookingOutcome outcome = tryBookRoom(roomNumber);
+        if (outcome != BookingOutcome.SOLD_OUT) {
+            return CompletableFuture.completedFuture(outcome);
+        }
+
+        Room room = rooms.get(roomNumber);
+        Waitlist waitlist = room.getWaitlist();
+        CompletableFuture<BookingOutcome> waiter = new CompletableFuture<>();
+        waitlist.enqueue(waiter);
+        ScheduledFuture<?> timeout = retryScheduler.schedule(
+            () -> waiter.complete(BookingOutcome.SOLD_OUT), maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        waiter.whenComplete((result, error) -> {
+            timeout.cancel(false);
+            if (result != BookingOutcome.BOOKED) {
+                waitlist.remove(waiter);
+            }
+        });
+        logger.info("Room {} is sold out; request is waiting at position {}", roomNumber, waitlist.size());
+
+        // Inventory released between the failed attempt and joining the waitlist would otherwise go unnoticed
+        drainWaitlist(room);
+        return waiter;
+    }
+
+    /**
+     * Hands free inventory to waiting requests until one of the two runs out.
+     * Each unit is booked (and journaled) before it is handed over, and returned if every
+     * waiter gave up in the meantime.
+     */
+    private void drainWaitlist(Room room) {
+        Waitlist waitlist = room.getWaitlist();
+        while (!waitlist.isEmpty()) {
+            if (bookUnits(room, 1) == 0) {
+                return;
+            }
+            if (!waitlist.handOff()) {
+                releaseUnit(room);
+            }
+        }
+    }
+
+    private void releaseUnit(Room room) {
+        inJournalOrder(room, () -> {
             room.releaseRoom();
-            logger.info("Released room {}", roomNumber);
-        } else {
+            journalRelease(JournalRecord.Type.RELEASE, room.getRoomNumber(), 1, 0, 0);
+            return null;
+        });
+        rooms.markChanged(room.getRoomNumber());
+    }
+
+    /**
+     * Cancels a stay previously booked with exactly these dates.
+     * Returns true if the stay was found and removed.
+     */
+    public boolean releaseRoom(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        Room room = rooms.get(roomNumber);
+        if (room == null) {
             logger.warn("Attempted to release non-existent room {}", roomNumber);
+            return false;
+        }
+
+        boolean released = inJournalOrder(room, () -> {
+            if (!room.releaseStay(checkIn, checkOut)) {
+                return false;
+            }
+            journalRelease(JournalRecord.Type.RELEASE_STAY, roomNumber, 1,
+                checkIn.toEpochDay(), checkOut.toEpochDay());
+            return true;
+        });
+        if (released) {
+            rooms.markChanged(roomNumber);
+            occupancy.update(room, checkIn.toEpochDay(), checkOut.toEpochDay());
+        }
+
+        if (released) {
+            logger.info("Released room {} from {} to {}", roomNumber, checkIn, checkOut);
+            return true;
+        }
+
+        logger.warn("No stay in room {} from {} to {} to release", roomNumber, checkIn, checkOut);
+        return false;
+    }
+
+    /**
+     * Holds a unit of a room for the nights from checkIn up to (but excluding) checkOut,
+     * for example while a payment is taken. The unit is unavailable to others until the hold
+     * is confirmed or cancelled, or until ttl passes and it is released automatically.
+     * Holds live in memory only and are not journaled until confirmed.
+     * Returns null if the room doesn't exist or has no unit free for the whole stay.
+     *
+     * @throws IllegalArgumentException if checkIn is not before checkOut
+     */
+    public HoldId hold(int roomNumber, LocalDate checkIn, LocalDate checkOut, Duration ttl) {
+        validateStay(checkIn, checkOut);
+        Room room = rooms.get(roomNumber);
+        if (room == null) {
+            logger.warn("Room {} not found", roomNumber);
+            return null;
+        }
+
+        int unit = room.getCalendar().hold(checkIn.toEpochDay(), checkOut.toEpochDay());
+        if (unit >= 0) {
+            rooms.markChanged(roomNumber);
+            occupancy.update(room, checkIn.toEpochDay(), checkOut.toEpochDay());
+        }
+        if (unit < 0) {
+            logger.warn("Room {} has no unit free to hold from {} to {}", roomNumber, checkIn, checkOut);
+            return null;
+        }
+
+        Hold hold = new Hold(new HoldId(nextHoldId.getAndIncrement()), room, unit, checkIn, checkOut);
+        holds.put(hold.id, hold);
+        hold.timeout = holdExpiry.schedule(hold, ttl.toNanos(), System.nanoTime());
+        startHoldTicker();
+        logger.info("Held room {} from {} to {} as {}", roomNumber, checkIn, checkOut, hold.id);
+        return hold.id;
+    }
+
+    /**
+     * Confirms a hold, turning it into a journaled booking.
+     * Returns false if the hold is unknown, already confirmed or cancelled, or has expired.
+     */
+    public boolean confirm(HoldId holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        cancelHoldTimeout(hold);
+
+        inJournalOrder(hold.room, () -> {
+            hold.room.getCalendar().confirmHold(hold.unit, hold.checkIn.toEpochDay());
+            journalStay(JournalRecord.Type.BOOK_STAY, hold.room.getRoomNumber(), hold.checkIn, hold.checkOut,
+                () -> hold.room.releaseStay(hold.checkIn, hold.checkOut));
+            return null;
+        });
+        logger.info("Confirmed {} for room {}", holdId, hold.room.getRoomNumber());
+        return true;
+    }
+
+    /**
+     * Cancels a hold and frees its unit.
+     * Returns false if the hold is unknown, already confirmed or cancelled, or has expired.
+     */
+    public boolean cancel(HoldId holdId) {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        cancelHoldTimeout(hold);
+        releaseHold(hold);
+        logger.info("Cancelled {} for room {}", holdId, hold.room.getRoomNumber());
+        return true;
+    }
+
+    /**
+     * Returns the number of holds that are neither confirmed, cancelled nor expired.
+     */
+    public int getActiveHoldCount() {
+        return holds.size();
+    }
+
+    private void releaseHold(Hold hold) {
+        hold.room.getCalendar().cancelHold(hold.unit, hold.checkIn.toEpochDay());
+        rooms.markChanged(hold.room.getRoomNumber());
+        occupancy.update(hold.room, hold.checkIn.toEpochDay(), hold.checkOut.toEpochDay());
+    }
+
+    private void cancelHoldTimeout(Hold hold) {
+        TimingWheel.Timeout<Hold> timeout = hold.timeout;
+        if (timeout != null) {
+            holdExpiry.cancel(timeout);
+        }
+    }
+
+    /**
+     * Ticks the hold timing wheel while it has anything scheduled.
+     * One periodic task per service drives every hold, however many there are.
+     */
+    private void startHoldTicker() {
+        synchronized (holdTickerLock) {
+            if (holdTicker == null) {
+                holdTicker = retryScheduler.scheduleAtFixedRate(this::expireHolds,
+                    HOLD_TICK_MILLIS, HOLD_TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void expireHolds() {
+        for (Hold hold : holdExpiry.advance(System.nanoTime())) {
+            // Losing this race to confirm or cancel means the hold is no longer ours to release
+            if (holds.remove(hold.id, hold)) {
+                releaseHold(hold);
+                logger.info("{} for room {} expired", hold.id, hold.room.getRoomNumber());
+            }
+        }
+        synchronized (holdTickerLock) {
+            if (holdExpiry.isEmpty() && holdTicker != null) {
+                holdTicker.cancel(false);
+                holdTicker = null;
+            }
+        }
+    }
+
+    /**
+     * A held unit waiting to be confirmed, cancelled or expired.
+     */
+    private static final class Hold {
+        final HoldId id;
+        final Room room;
+        final int unit;
+        final LocalDate checkIn;
+        final LocalDate checkOut;
+        volatile TimingWheel.Timeout<Hold> timeout;
+
+        Hold(HoldId id, Room room, int unit, LocalDate checkIn, LocalDate checkOut) {
+            this.id = id;
+            this.room = room;
+            this.unit = unit;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
         }
     }
 
     /**
      * Returns a thread-safe copy of all rooms.
-     * Uses ConcurrentHashMap for thread safety.
+     * The values are the live rooms; use getRoomSnapshot() for a consistent, immutable view.
      */
     public Map<Integer, Room> getAllRooms() {
-        return new ConcurrentHashMap<>(rooms);
+        return new ConcurrentHashMap<>(rooms.toMap());
+    }
+
+    /**
+     * Returns up to limit rooms matching the query, cheapest first (ties by room number).
+     * Scans the live room table in parallel without copying it, so each room is checked
+     * against its state at the moment it is visited.
+     *
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public List<Room> findCheapestRooms(RoomQuery query, int limit) {
+        return queryExecutor.findCheapest(rooms, query, limit);
+    }
+
+    /**
+     * Returns an immutable, point-in-time view of every room.
+     * When nothing has changed since the last call this is a single volatile read. Otherwise
+     * the chunks of rooms that changed are rebuilt and unchanged chunks are shared with the
+     * previous view. Every mutation changes a single room atomically, so rebuilding needs no
+     * lock against bookings.
+     */
+    public RoomStateSnapshot getRoomSnapshot() {
+        RoomStateSnapshot current = rooms.currentSnapshot();
+        return current != null ? current : rooms.snapshot();
+    }
+
+    /**
+     * Captures every room together with the journal position it corresponds to.
+     * Journaled mutations hold their room's stripe of the cut lock until their record is
+     * written, so locking every stripe gives a consistent cut. Bookings pause only while rooms
+     * are copied in memory, not while the snapshot is written out.
+     */
+    public RoomSnapshot captureSnapshot() {
+        if (journal == null) {
+            return copyRooms(0);
+        }
+        cutLock.lockWrite();
+        try {
+            return copyRooms(journal.getNextSequence());
+        } finally {
+            cutLock.unlockWrite();
+        }
+    }
+
+    private RoomSnapshot copyRooms(long journalSequence) {
+        List<RoomSnapshot.Entry> entries = new ArrayList<>(rooms.size());
+        rooms.forEach(room -> entries.add(RoomSnapshot.Entry.of(room)));
+        return new RoomSnapshot(journalSequence, entries);
+    }
+
+    /**
+     * Rebuilds room state by replaying the journal on top of the rooms already added.
+     * Call once at startup, after the rooms exist and before bookings are accepted.
+     * Returns the number of records replayed.
+     */
+    public long recover() throws IOException {
+        return replayJournalFrom(0);
+    }
+
+    /**
+     * Rebuilds room state from a snapshot plus the journal records written after it.
+     * Replaces any rooms with the same numbers. Returns the number of records replayed.
+     */
+    public long recover(RoomSnapshot snapshot) throws IOException {
+        for (RoomSnapshot.Entry entry : snapshot.getEntries()) {
+            addRoom(entry.toRoom());
+        }
+        logger.info("Loaded {} rooms from snapshot at journal sequence {}",
+            snapshot.getEntries().size(), snapshot.getJournalSequence());
+        return replayJournalFrom(snapshot.getJournalSequence());
+    }
+
+    private long replayJournalFrom(long sequence) throws IOException {
+        if (journal == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long[] unapplied = new long[1];
+        long replayed = journal.replayFrom(sequence, record -> {
+            if (!apply(record)) {
+                unapplied[0]++;
+            }
+        });
+        logger.info("Recovered {} journal records in {} ms", replayed, (System.nanoTime() - start) / 1_000_000);
+        if (unapplied[0] > 0) {
+            logger.error("{} journal records could not be applied; recovered inventory may not match the journal",
+                unapplied[0]);
+        }
+        return replayed;
+    }
+
+    /**
+     * Applies a journaled mutation to the in-memory rooms without journaling it again.
+     * Returns false, after logging why, if the record could not be applied in full: a booking
+     * the room had no inventory or free unit for means the journal disagrees with itself.
+     */
+    private boolean apply(JournalRecord record) {
+        Room room = rooms.get(record.getRoomNumber());
+        if (room == null) {
+            logger.warn("Skipping journal record for unknown room {}", record.getRoomNumber());
+            return false;
+        }
+        boolean applied = switch (record.getType()) {
+            case BOOK -> room.bookRooms(record.getUnits()) == record.getUnits();
+            case RELEASE -> {
+                room.releaseRooms(record.getUnits());
+                yield true;
+            }
+            case BOOK_STAY -> room.getCalendar().book(record.getCheckInDay(), record.getCheckOutDay()) >= 0;
+            case RELEASE_STAY -> room.getCalendar().release(record.getCheckInDay(), record.getCheckOutDay());
+        };
+        if (record.getType() == JournalRecord.Type.BOOK_STAY || record.getType() == JournalRecord.Type.RELEASE_STAY) {
+            occupancy.update(room, record.getCheckInDay(), record.getCheckOutDay());
+        }
+        rooms.markChanged(record.getRoomNumber());
+        if (!applied) {
+            logger.error("Journal record {} for room {} could not be applied in full",
+                record.getType(), record.getRoomNumber());
+        }
+        return applied;
+    }
+
+    /**
+     * Runs a room change and its journal append as one step per room, so the journal records
+     * each room's changes in the order they happened in memory; otherwise a replay of BOOK
+     * before the RELEASE that made room for it would come out with the wrong inventory. The
+     * room's stripe of the cut lock is held too, so captureSnapshot never sees a change whose
+     * record is not yet written. Without a journal there is nothing to order, and the change
+     * stays lock-free.
+     */
+    private <T> T inJournalOrder(Room room, Supplier<T> change) {
+        if (journal == null) {
+            return change.get();
+        }
+        int roomNumber = room.getRoomNumber();
+        cutLock.lockRead(roomNumber);
+        try {
+            synchronized (room) {
+                return change.get();
+            }
+        } finally {
+            cutLock.unlockRead(roomNumber);
+        }
+    }
+
+    /**
+     * Journals a booking that has already been applied in memory.
+     * If the journal write fails the booking is undone, so a caller is never told about a
+     * booking that would not survive a restart.
+     */
+    private void journalBooking(JournalRecord.Type type, int roomNumber, int units, Runnable undo) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(type, roomNumber, units);
+        } catch (RuntimeException e) {
+            undo.run();
+            throw e;
+        }
+    }
+
+    private void journalStay(JournalRecord.Type type, int roomNumber, LocalDate checkIn, LocalDate checkOut,
+                             Runnable undo) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendStay(type, roomNumber, checkIn.toEpochDay(), checkOut.toEpochDay());
+        } catch (RuntimeException e) {
+            undo.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Journals a release. A failed write is not undone: after a restart the unit simply stays
+     * booked, which can undersell but never oversell.
+     */
+    private void journalRelease(JournalRecord.Type type, int roomNumber, int units, long checkInDay, long checkOutDay) {
+        if (journal == null) {
+            return;
+        }
+        if (type == JournalRecord.Type.RELEASE_STAY) {
+            journal.appendStay(type, roomNumber, checkInDay, checkOutDay);
+        } else {
+            journal.append(type, roomNumber, units);
+        }
+    }
+
+    private static void validateStay(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Check-in and check-out dates cannot be null");
+        }
+
+        if (!checkIn.isBefore(checkOut)) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
     }
 
     /**
@@ -122,6 +901,7 @@ public class RoomDatabaseAccessService {
      */
     public void clear() {
         rooms.clear();
+        occupancy.clear();
         logger.info("Cleared all rooms from database");
     }
 } 
\ No newline at end of file
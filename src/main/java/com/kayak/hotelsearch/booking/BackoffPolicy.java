@@ -0,0 +1,57 @@
+package com.kayak.hotelsearch.booking;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long to wait before retrying a booking that found the room sold out.
+ * Attempts are numbered from 1 for the first retry.
+ */
+@FunctionalInterface
+public interface BackoffPolicy {
+
+    /**
+     * Returns the delay in milliseconds before the given retry attempt.
+     */
+    long delayMillis(int attempt);
+
+    /**
+     * Waits the same delay before every retry.
+     *
+     * @throws IllegalArgumentException if delayMillis is negative
+     */
+    static BackoffPolicy fixed(long delayMillis) {
+        if (delayMillis < 0) {
+            throw new IllegalArgumentException("Delay cannot be negative");
+        }
+        return attempt -> delayMillis;
+    }
+
+    /**
+     * Doubles the delay after every retry, starting at initialMillis and capped at maxMillis.
+     *
+     * @throws IllegalArgumentException if initialMillis is negative or above maxMillis
+     */
+    static BackoffPolicy exponential(long initialMillis, long maxMillis) {
+        if (initialMillis < 0 || initialMillis > maxMillis) {
+            throw new IllegalArgumentException("Initial delay must be between 0 and the maximum delay");
+        }
+        return attempt -> {
+            // Shifting past 62 bits would overflow; the cap is reached long before that anyway
+            int shift = Math.min(Math.max(attempt - 1, 0), 62);
+            long delay = initialMillis << shift;
+            return delay < 0 || delay > maxMillis || (initialMillis != 0 && delay >> shift != initialMillis)
+                ? maxMillis : delay;
+        };
+    }
+
+    /**
+     * Picks a random delay between 0 and this policy's delay ("full jitter"), so requests
+     * that were turned away together do not all retry at the same instant.
+     */
+    default BackoffPolicy withJitter() {
+        return attempt -> {
+            long delay = delayMillis(attempt);
+            return delay <= 0 ? 0 : ThreadLocalRandom.current().nextLong(delay + 1);
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.kayak.hotelsearch.booking;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded hand-off between a request reader and the booking workers.
+ * The reader blocks once the queue is full, so a slow consumer throttles ingestion instead
+ * of letting requests pile up in memory. The reader marks the stream finished with a flag
+ * rather than a queued marker, so finishing never blocks on a consumer that has stopped;
+ * every consumer sees the end, however many there are.
+ */
+public class BookingIngestion {
+    private static final Logger logger = LoggerFactory.getLogger(BookingIngestion.class);
+    private static final long POLL_MILLIS = 10;
+
+    private final BlockingQueue<BookingRequest> queue;
+    private volatile boolean finished;
+
+    public BookingIngestion(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Streams every request in the file into the queue, blocking while it is full.
+     * Always signals end of stream, even if the file cannot be read.
+     * Returns the number of requests read.
+     *
+     * @throws IOException if the file cannot be read or parsed; requests before the failure
+     *     have already been queued
+     */
+    public long ingest(Path path) throws IOException, InterruptedException {
+        long count = 0;
+        try (BookingRequestReader reader = BookingRequestReader.open(path)) {
+            BookingRequest request;
+            while ((request = reader.next()) != null) {
+                queue.put(request);
+                count++;
+            }
+            logger.info("Read {} booking requests from {}", count, path);
+        } catch (IOException e) {
+            throw new IOException("Error reading booking requests after " + count + " requests", e);
+        } finally {
+            finished = true;
+        }
+        return count;
+    }
+
+    /**
+     * Takes the next request, blocking until one is available.
+     * Returns null once the reader has finished.
+     */
+    public BookingRequest take() throws InterruptedException {
+        while (true) {
+            BookingRequest request = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (request != null) {
+                return request;
+            }
+            if (finished) {
+                // The flag is set after the last put, so anything still queued is visible now
+                return queue.poll();
+            }
+        }
+    }
+
+    /**
+     * Blocks for at least one request, then moves up to maxRequests into the batch.
+     * Returns the number of requests added, or 0 once the reader has finished.
+     */
+    public int drainTo(List<BookingRequest> batch, int maxRequests) throws InterruptedException {
+        BookingRequest first = take();
+        if (first == null) {
+            return 0;
+        }
+        batch.add(first);
+        return 1 + queue.drainTo(batch, maxRequests - 1);
+    }
+}
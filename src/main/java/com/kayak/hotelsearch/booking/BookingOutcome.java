@@ -0,0 +1,15 @@
+package com.kayak.hotelsearch.booking;
+
+/**
+ * Result of a single booking attempt.
+ * BOOKED: A unit of inventory was taken for the request
+ * SOLD_OUT: The room exists but has no inventory left
+ * NOT_FOUND: No room with the requested number exists
+ * ERROR: The attempt failed with an unexpected exception
+ */
+public enum BookingOutcome {
+    BOOKED,
+    SOLD_OUT,
+    NOT_FOUND,
+    ERROR
+}
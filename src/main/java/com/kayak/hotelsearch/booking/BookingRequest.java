@@ -1,5 +1,9 @@
 package com.kayak.hotelsearch.booking;
 
+import com.kayak.hotelsearch.hotel.HotelId;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
  * Represents a booking request for a hotel room.
  * This class is designed to be fully immutable, meaning its state cannot be changed after creation.
@@ -14,14 +18,34 @@ package com.kayak.hotelsearch.booking;
  * - Performance: Frequent creation of new objects may impact performance in high-throughput scenarios.
  */
 public class BookingRequest {
+    private final HotelId hotelId;
     private final int roomNumber;
     private final String guest;
 
+    /**
+     * Creates a request for a room in HotelId.DEFAULT.
+     */
     public BookingRequest(int roomNumber, String guest) {
+        this(HotelId.DEFAULT, roomNumber, guest);
+    }
+
+    /**
+     * Also the JSON mapping: {"hotelId": 7, "roomNumber": 101, "guest": "..."}, where only
+     * roomNumber is required and a missing hotelId means HotelId.DEFAULT.
+     */
+    @JsonCreator
+    public BookingRequest(@JsonProperty("hotelId") HotelId hotelId,
+                          @JsonProperty(value = "roomNumber", required = true) int roomNumber,
+                          @JsonProperty("guest") String guest) {
+        this.hotelId = hotelId == null ? HotelId.DEFAULT : hotelId;
         this.roomNumber = roomNumber;
         this.guest = guest;
     }
 
+    public HotelId getHotelId() {
+        return hotelId;
+    }
+
     public int getRoomNumber() {
         return roomNumber;
     }
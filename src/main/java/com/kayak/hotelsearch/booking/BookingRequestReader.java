@@ -0,0 +1,100 @@
+package com.kayak.hotelsearch.booking;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import com.kayak.hotelsearch.hotel.HotelId;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams booking requests out of a JSON source one at a time.
+ * Accepts either a single JSON array of request objects (the booking_requests.json format)
+ * or newline-delimited JSON with one request object per line. Only the current request is
+ * held in memory, so file size does not matter.
+ *
+ * Each object needs a numeric "roomNumber"; "guest" and a numeric "hotelId" are optional
+ * (requests without one belong to HotelId.DEFAULT) and other fields are skipped.
+ */
+public class BookingRequestReader implements Closeable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private boolean started;
+    private boolean inArray;
+    private boolean finished;
+
+    public BookingRequestReader(InputStream in) throws IOException {
+        this.parser = JSON_FACTORY.createParser(in);
+    }
+
+    /**
+     * Opens a reader over a file.
+     */
+    public static BookingRequestReader open(Path path) throws IOException {
+        return new BookingRequestReader(Files.newInputStream(path));
+    }
+
+    /**
+     * Returns the next request, or null once the source is exhausted.
+     *
+     * @throws IOException if the source is not valid JSON or a request is malformed
+     */
+    public BookingRequest next() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        JsonToken token = parser.nextToken();
+        if (!started) {
+            started = true;
+            if (token == JsonToken.START_ARRAY) {
+                inArray = true;
+                token = parser.nextToken();
+            }
+        }
+
+        if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+            finished = true;
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a booking request object but found " + token);
+        }
+        return readRequest();
+    }
+
+    private BookingRequest readRequest() throws IOException {
+        Integer roomNumber = null;
+        String guest = null;
+        HotelId hotelId = HotelId.DEFAULT;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("roomNumber".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                roomNumber = parser.getIntValue();
+            } else if ("guest".equals(field) && value == JsonToken.VALUE_STRING) {
+                guest = parser.getText();
+            } else if ("hotelId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                hotelId = new HotelId(parser.getLongValue());
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (roomNumber == null) {
+            throw new JsonParseException(parser, "Booking request is missing a numeric roomNumber");
+        }
+        return new BookingRequest(hotelId, roomNumber, guest);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
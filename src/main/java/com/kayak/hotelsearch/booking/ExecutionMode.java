@@ -0,0 +1,38 @@
+package com.kayak.hotelsearch.booking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How booking requests are scheduled onto threads.
+ * PLATFORM_POOL: A fixed pool of platform threads
+ * VIRTUAL_THREADS: One virtual thread per request
+ * STRUCTURED: One virtual thread per request, all joined under a single deadline;
+ *             requests still running when the deadline passes are cancelled
+ * RING_BUFFER: Requests queued into per-partition ring buffers, each applied in order
+ *              by a single writer thread
+ */
+public enum ExecutionMode {
+    PLATFORM_POOL,
+    VIRTUAL_THREADS,
+    STRUCTURED,
+    RING_BUFFER;
+
+    /**
+     * Parses a comma-separated list of mode names, ignoring case and blanks.
+     *
+     * @throws IllegalArgumentException if a name is not a known mode
+     */
+    public static List<ExecutionMode> parseList(String modes) {
+        List<ExecutionMode> parsed = new ArrayList<>();
+        for (String mode : modes.split(",")) {
+            if (!mode.isBlank()) {
+                parsed.add(valueOf(mode.trim().toUpperCase()));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("At least one execution mode is required");
+        }
+        return parsed;
+    }
+}
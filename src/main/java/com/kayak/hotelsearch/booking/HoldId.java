@@ -0,0 +1,31 @@
+package com.kayak.hotelsearch.booking;
+
+/**
+ * Identifies a tentative reservation created by a hold, to be confirmed or cancelled later.
+ */
+public final class HoldId {
+    private final long value;
+
+    public HoldId(long value) {
+        this.value = value;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HoldId holdId && holdId.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "HoldId{" + value + '}';
+    }
+}
@@ -0,0 +1,165 @@
+package com.kayak.hotelsearch.booking;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of recent booking outcomes keyed by request ID, so a retried request gets
+ * its original outcome instead of booking again.
+ *
+ * Entries are split across stripes, each an insertion-ordered map under its own lock. Every
+ * entry lives for the same time-to-live, so insertion order is also expiry order: expired
+ * entries are always at the head of a stripe and are dropped there, and a full stripe evicts
+ * its oldest entry. Memory is therefore capped by the capacity whatever the request rate.
+ *
+ * A request that arrives while the same ID is still being booked waits for that booking's
+ * outcome rather than starting a second one.
+ */
+public class IdempotencyCache {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a cache holding at most capacity outcomes, each for at most ttl.
+     *
+     * @throws IllegalArgumentException if capacity or ttl is not positive
+     */
+    public IdempotencyCache(int capacity, Duration ttl) {
+        this(capacity, ttl, System::nanoTime);
+    }
+
+    IdempotencyCache(int capacity, Duration ttl, LongSupplier clock) {
+        if (capacity <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Capacity and time-to-live must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.stripes = new Stripe[STRIPES];
+        int stripeCapacity = Math.max(1, (capacity + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Returns the cached outcome for a request ID, or runs the booking and caches its outcome.
+     * A booking that throws is not cached, so the request can be retried.
+     */
+    public BookingOutcome execute(UUID requestId, Supplier<BookingOutcome> booking) {
+        Stripe stripe = stripeFor(requestId);
+        CompletableFuture<BookingOutcome> outcome = new CompletableFuture<>();
+        CompletableFuture<BookingOutcome> existing = stripe.putIfAbsent(requestId, outcome, clock.getAsLong());
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            BookingOutcome result = booking.get();
+            outcome.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            stripe.remove(requestId, outcome);
+            outcome.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached outcome for a request ID, or null if there is none or it is still running.
+     */
+    public BookingOutcome get(UUID requestId) {
+        CompletableFuture<BookingOutcome> outcome = stripeFor(requestId).get(requestId, clock.getAsLong());
+        return outcome == null ? null : outcome.getNow(null);
+    }
+
+    /**
+     * Returns the number of cached entries, expired ones not yet dropped included.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(UUID requestId) {
+        long bits = requestId.getMostSignificantBits() ^ requestId.getLeastSignificantBits();
+        int hash = (int) (bits ^ (bits >>> 32));
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final class Stripe {
+        private final int capacity;
+        private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>();
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized CompletableFuture<BookingOutcome> putIfAbsent(UUID requestId,
+                                                                   CompletableFuture<BookingOutcome> outcome,
+                                                                   long now) {
+            evictExpired(now);
+            Entry existing = entries.get(requestId);
+            if (existing != null) {
+                return existing.outcome;
+            }
+            if (entries.size() >= capacity) {
+                Iterator<Entry> oldest = entries.values().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            entries.put(requestId, new Entry(outcome, now + ttlNanos));
+            return null;
+        }
+
+        synchronized CompletableFuture<BookingOutcome> get(UUID requestId, long now) {
+            evictExpired(now);
+            Entry entry = entries.get(requestId);
+            return entry == null ? null : entry.outcome;
+        }
+
+        synchronized void remove(UUID requestId, CompletableFuture<BookingOutcome> outcome) {
+            Entry entry = entries.get(requestId);
+            if (entry != null && entry.outcome == outcome) {
+                entries.remove(requestId);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private void evictExpired(long now) {
+            Iterator<Map.Entry<UUID, Entry>> oldest = entries.entrySet().iterator();
+            while (oldest.hasNext() && oldest.next().getValue().expiresAtNanos - now <= 0) {
+                oldest.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<BookingOutcome> outcome;
+        final long expiresAtNanos;
+
+        Entry(CompletableFuture<BookingOutcome> outcome, long expiresAtNanos) {
+            this.outcome = outcome;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.kayak.hotelsearch.booking;
+
+import java.util.UUID;
+
+/**
+ * Source of unique request IDs. Implementations must be safe to call from any thread.
+ */
+@FunctionalInterface
+public interface RequestIdGenerator {
+
+    UUID nextId();
+
+    /**
+     * Returns the shared time-ordered generator, the default for new booking requests.
+     */
+    static RequestIdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.SHARED;
+    }
+
+    /**
+     * Returns a generator of random (version 4) UUIDs. Every call goes through one shared
+     * SecureRandom, so prefer timeOrdered() on hot paths.
+     */
+    static RequestIdGenerator random() {
+        return UUID::randomUUID;
+    }
+}
@@ -0,0 +1,64 @@
+package com.kayak.hotelsearch.booking;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write lock split into stripes keyed by an int, such as a room number.
+ * A reader locks only its key's stripe, so readers on different keys never update the same
+ * lock word; a writer locks every stripe, in order, and so excludes all readers at once.
+ * Suits many short readers and rare writers that need a consistent cut across all keys.
+ */
+public class StripedReadWriteLock {
+    private final ReentrantReadWriteLock[] stripes;
+    private final int mask;
+
+    /**
+     * Creates a lock with at least the given number of stripes, rounded up to a power of two.
+     *
+     * @throws IllegalArgumentException if stripes is not positive
+     */
+    public StripedReadWriteLock(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int count = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+        this.mask = count - 1;
+    }
+
+    public void lockRead(int key) {
+        stripeFor(key).readLock().lock();
+    }
+
+    public void unlockRead(int key) {
+        stripeFor(key).readLock().unlock();
+    }
+
+    /**
+     * Locks every stripe for writing, waiting for the readers on each to finish.
+     */
+    public void lockWrite() {
+        for (ReentrantReadWriteLock stripe : stripes) {
+            stripe.writeLock().lock();
+        }
+    }
+
+    public void unlockWrite() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].writeLock().unlock();
+        }
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private ReentrantReadWriteLock stripeFor(int key) {
+        // Spread consecutive keys, such as room numbers, across stripes
+        int hash = key * 0x9E3779B9;
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,83 @@
+package com.kayak.hotelsearch.booking;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates version 7 UUIDs: a 48-bit Unix millisecond timestamp, then a 12-bit sequence,
+ * then 62 random bits.
+ *
+ * Each thread keeps its own last timestamp and sequence and draws the random bits from
+ * ThreadLocalRandom, so generating an ID takes no lock, no shared write and no SecureRandom.
+ * IDs made by one thread are strictly increasing: the sequence counts up within a millisecond,
+ * and if it runs out, or the clock steps back, the thread carries on from its last timestamp
+ * instead. IDs from different threads are ordered by millisecond, and the random bits keep
+ * them apart within one.
+ *
+ * UUID.compareTo therefore orders these IDs by creation time (until the year 6429, when the
+ * timestamp reaches the sign bit), so journals and caches keyed by them can scan or expire
+ * by time range.
+ */
+public class TimeOrderedIdGenerator implements RequestIdGenerator {
+    static final TimeOrderedIdGenerator SHARED = new TimeOrderedIdGenerator();
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final long VERSION = 7L << SEQUENCE_BITS;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final LongSupplier clock;
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    public TimeOrderedIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock milliseconds since the Unix epoch
+     */
+    TimeOrderedIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID nextId() {
+        State current = state.get();
+        long now = clock.getAsLong();
+        if (now > current.millis) {
+            current.millis = now;
+            current.sequence = 0;
+        } else if (current.sequence < MAX_SEQUENCE) {
+            current.sequence++;
+        } else {
+            // Sequence exhausted: borrow the next millisecond rather than repeat or go back
+            current.millis++;
+            current.sequence = 0;
+        }
+        long high = current.millis << 16 | VERSION | current.sequence;
+        long low = VARIANT | ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+        return new UUID(high, low);
+    }
+
+    /**
+     * Returns the creation time, in milliseconds since the Unix epoch, of an ID from this generator.
+     *
+     * @throws IllegalArgumentException if the ID is not a version 7 UUID
+     */
+    public static long creationMillis(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("Not a time-ordered ID: " + id);
+        }
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    /**
+     * The calling thread's last timestamp and its sequence within that millisecond.
+     */
+    private static final class State {
+        long millis = Long.MIN_VALUE;
+        int sequence;
+    }
+}
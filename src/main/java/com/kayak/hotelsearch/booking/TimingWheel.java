@@ -0,0 +1,174 @@
+package com.kayak.hotelsearch.booking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for large numbers of timeouts.
+ * Time advances in fixed ticks. Level 0 has one slot per tick for the next 256 ticks; each
+ * higher level covers 256 times the span of the one below with the same number of slots.
+ * A timeout is linked into the slot for its deadline on the lowest level that reaches it, and
+ * when a lower level wraps, the matching slot of the level above is cascaded down. Scheduling
+ * and cancelling are O(1); an expiring timeout is moved at most once per level.
+ *
+ * All methods are synchronized. advance() returns expired values rather than calling back,
+ * so callers handle expiry without holding the wheel's lock.
+ */
+public class TimingWheel<T> {
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickNanos;
+    private final long startNanos;
+    // Each slot is a circular doubly-linked list with a sentinel head
+    private final Timeout<?>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a wheel whose clock starts at startNanos (a System.nanoTime() value).
+     *
+     * @throws IllegalArgumentException if tickNanos is not positive
+     */
+    public TimingWheel(long tickNanos, long startNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+        this.wheels = new Timeout<?>[LEVELS][SLOTS];
+        for (Timeout<?>[] level : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<?> sentinel = new Timeout<>(null, 0);
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+                level[slot] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules a value to expire delayNanos after nowNanos, rounded up to a whole tick and at
+     * least one tick after the last advance. Delays beyond the wheel's range expire at the end
+     * of the range.
+     */
+    public synchronized Timeout<T> schedule(T value, long delayNanos, long nowNanos) {
+        long nowTick = (nowNanos - startNanos) / tickNanos;
+        if (size == 0) {
+            // Nobody advances an idle wheel, so catch its clock up before measuring from it
+            currentTick = Math.max(currentTick, nowTick);
+        }
+        long deadlineTick = (nowNanos - startNanos + delayNanos + tickNanos - 1) / tickNanos;
+        Timeout<T> timeout = new Timeout<>(value, Math.max(currentTick + 1, deadlineTick));
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timeout. Returns false if it already expired or was cancelled.
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.next == null) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to nowNanos and returns the values whose deadline has passed,
+     * earliest first.
+     */
+    public synchronized List<T> advance(long nowNanos) {
+        long targetTick = (nowNanos - startNanos) / tickNanos;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick && size > 0) {
+            currentTick++;
+            cascade(1);
+            Timeout<?> sentinel = wheels[0][(int) (currentTick & SLOT_MASK)];
+            while (sentinel.next != sentinel) {
+                @SuppressWarnings("unchecked")
+                Timeout<T> timeout = (Timeout<T>) sentinel.next;
+                unlink(timeout);
+                size--;
+                expired.add(timeout.value);
+            }
+        }
+        // With nothing scheduled the clock simply jumps forward
+        currentTick = Math.max(currentTick, targetTick);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * When every level below has wrapped, re-inserts this level's current slot one level down.
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        Timeout<?> sentinel = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        while (sentinel.next != sentinel) {
+            Timeout<?> timeout = sentinel.next;
+            unlink(timeout);
+            insert(timeout);
+        }
+    }
+
+    private void insert(Timeout<?> timeout) {
+        long remaining = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && remaining >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long tick = timeout.deadlineTick;
+        if (remaining >= 1L << (SLOT_BITS * LEVELS)) {
+            // Beyond the top level's range: park in the furthest slot it can hold
+            tick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+            timeout.deadlineTick = tick;
+        }
+        Timeout<?> sentinel = wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        timeout.previous = sentinel.previous;
+        timeout.next = sentinel;
+        sentinel.previous.next = timeout;
+        sentinel.previous = timeout;
+    }
+
+    private static void unlink(Timeout<?> timeout) {
+        timeout.previous.next = timeout.next;
+        timeout.next.previous = timeout.previous;
+        timeout.previous = null;
+        timeout.next = null;
+    }
+
+    /**
+     * Handle for a scheduled value, used to cancel it.
+     */
+    public static final class Timeout<T> {
+        private final T value;
+        private long deadlineTick;
+        private Timeout<?> previous;
+        private Timeout<?> next;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+}
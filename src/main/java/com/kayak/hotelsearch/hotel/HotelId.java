@@ -0,0 +1,42 @@
+package com.kayak.hotelsearch.hotel;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Identifies a hotel. Room numbers are only unique within a hotel.
+ * Serialized to JSON as the bare number.
+ */
+public final class HotelId {
+    /**
+     * The hotel that requests without a hotel belong to.
+     */
+    public static final HotelId DEFAULT = new HotelId(0);
+
+    private final long value;
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public HotelId(long value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public long getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HotelId hotelId && hotelId.value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return "HotelId{" + value + '}';
+    }
+}
@@ -0,0 +1,160 @@
+package com.kayak.hotelsearch.hotel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.BookingRequest;
+import com.kayak.hotelsearch.room.RoomTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Room inventory for many hotels, split into independent shards by HotelId.
+ *
+ * Every hotel lives in exactly one shard, and a shard's hotels and rooms are only touched
+ * under that shard's lock. Requests for hotels in different shards therefore never contend
+ * or share cache lines, so with many more hotels than shards, throughput grows with the
+ * number of cores instead of queueing on one lock or one map. A request is routed by hashing
+ * its HotelId; the room number is then resolved inside the hotel's RoomTable, which looks rooms
+ * up by number without boxing it.
+ */
+public class ShardedInventory {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedInventory.class);
+
+    private final Shard[] shards;
+    private final int mask;
+
+    /**
+     * Creates an inventory with a few shards per core, so even an uneven spread of hotels
+     * rarely puts two busy ones behind the same lock.
+     */
+    public ShardedInventory() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 4);
+    }
+
+    /**
+     * @throws IllegalArgumentException if shardCount is not a power of two
+     */
+    public ShardedInventory(int shardCount) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("Shard count must be a power of two");
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+        }
+        this.mask = shardCount - 1;
+    }
+
+    /**
+     * Adds a room to a hotel, creating the hotel if needed.
+     * Replaces any room with the same number in that hotel.
+     */
+    public void addRoom(HotelId hotelId, Room room) {
+        shardFor(hotelId).addRoom(hotelId, room);
+    }
+
+    /**
+     * Returns the room, or null if the hotel or the room doesn't exist.
+     */
+    public Room getRoom(HotelId hotelId, int roomNumber) {
+        return shardFor(hotelId).getRoom(hotelId, roomNumber);
+    }
+
+    /**
+     * Routes a request to its hotel's shard and takes one unit of the room.
+     */
+    public BookingOutcome bookRoom(BookingRequest request) {
+        return bookRoom(request.getHotelId(), request.getRoomNumber());
+    }
+
+    /**
+     * Takes one unit of a room in a hotel.
+     */
+    public BookingOutcome bookRoom(HotelId hotelId, int roomNumber) {
+        BookingOutcome outcome = shardFor(hotelId).bookRoom(hotelId, roomNumber);
+        if (outcome == BookingOutcome.NOT_FOUND) {
+            logger.warn("Room {} not found in hotel {}", roomNumber, hotelId.getValue());
+        }
+        return outcome;
+    }
+
+    /**
+     * Books each request in order. Outcomes are returned in request order.
+     */
+    public List<BookingOutcome> bookRooms(List<BookingRequest> requests) {
+        return requests.stream().map(this::bookRoom).toList();
+    }
+
+    /**
+     * Returns one unit of a room in a hotel.
+     * Returns false if the hotel or the room doesn't exist.
+     */
+    public boolean releaseRoom(HotelId hotelId, int roomNumber) {
+        return shardFor(hotelId).releaseRoom(hotelId, roomNumber);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int getHotelCount() {
+        int hotels = 0;
+        for (Shard shard : shards) {
+            hotels += shard.hotelCount();
+        }
+        return hotels;
+    }
+
+    /**
+     * Returns the shard a hotel lives in. Stable for the lifetime of the inventory.
+     */
+    int shardIndexOf(HotelId hotelId) {
+        // Hotel IDs are often sequential, so spread them before masking
+        long bits = hotelId.getValue() * 0x9E3779B97F4A7C15L;
+        return (int) (bits >>> 32) & mask;
+    }
+
+    private Shard shardFor(HotelId hotelId) {
+        return shards[shardIndexOf(hotelId)];
+    }
+
+    /**
+     * The hotels of one shard. All access is synchronized on the shard.
+     */
+    private static final class Shard {
+        private final Map<HotelId, RoomTable> hotels = new HashMap<>();
+
+        synchronized void addRoom(HotelId hotelId, Room room) {
+            hotels.computeIfAbsent(hotelId, id -> new RoomTable()).put(room);
+        }
+
+        synchronized Room getRoom(HotelId hotelId, int roomNumber) {
+            RoomTable rooms = hotels.get(hotelId);
+            return rooms == null ? null : rooms.get(roomNumber);
+        }
+
+        synchronized BookingOutcome bookRoom(HotelId hotelId, int roomNumber) {
+            Room room = getRoom(hotelId, roomNumber);
+            if (room == null) {
+                return BookingOutcome.NOT_FOUND;
+            }
+            return room.bookRoom() ? BookingOutcome.BOOKED : BookingOutcome.SOLD_OUT;
+        }
+
+        synchronized boolean releaseRoom(HotelId hotelId, int roomNumber) {
+            Room room = getRoom(hotelId, roomNumber);
+            if (room == null) {
+                return false;
+            }
+            room.releaseRoom();
+            return true;
+        }
+
+        synchronized int hotelCount() {
+            return hotels.size();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.kayak.hotelsearch.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.BookingRequest;
+import com.kayak.hotelsearch.hotel.HotelId;
+import com.kayak.hotelsearch.room.RoomState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local HTTP front end for RoomDatabaseAccessService on the JDK HttpServer.
+ *
+ * Endpoints, all JSON:
+ *   POST /bookings          body {"roomNumber": 101, "guest": "..."}; 200 when booked,
+ *                           409 when sold out, 404 for an unknown room
+ *   POST /releases          body {"roomNumber": 101}; 200, or 404 for an unknown room
+ *   GET  /rooms/{number}    the room's current state, or 404
+ *   GET  /availability      rooms with units left; with ?roomNumber=&checkIn=&checkOut=
+ *                           whether that room is free for the stay
+ *
+ * Every exchange runs on its own virtual thread, so a handler blocked on the service costs
+ * no platform thread. How many idle keep-alive connections stay open is a JVM-wide JDK
+ * setting; main() raises it before creating the server, and embedders can do the same with
+ * -Dsun.net.httpserver.maxIdleConnections. The JSON reader and writer are built once; both
+ * are immutable and thread-safe.
+ *
+ * Latency of every exchange is recorded in the "http.request.latency" timer, tagged with
+ * the endpoint and the status code.
+ */
+public class BookingHttpServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BookingHttpServer.class);
+    private static final int BACKLOG = 4096;
+    private static final String MAX_IDLE_CONNECTIONS_PROPERTY = "sun.net.httpserver.maxIdleConnections";
+    private static final int MAX_IDLE_CONNECTIONS = 65_536;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader REQUEST_READER = MAPPER.readerFor(BookingRequest.class);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private final RoomDatabaseAccessService service;
+    private final MeterRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // Keyed by endpoint and status code
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+
+    public BookingHttpServer(RoomDatabaseAccessService service, InetSocketAddress address) throws IOException {
+        this(service, address, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Binds the server to the address (port 0 picks a free port) without starting it.
+     */
+    public BookingHttpServer(RoomDatabaseAccessService service, InetSocketAddress address,
+                             MeterRegistry registry) throws IOException {
+        this.service = service;
+        this.registry = registry;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+
+        server.createContext("/bookings", exchange -> handle(exchange, "book", "POST", this::book));
+        server.createContext("/releases", exchange -> handle(exchange, "release", "POST", this::release));
+        server.createContext("/rooms/", exchange -> handle(exchange, "getRoom", "GET", this::getRoom));
+        server.createContext("/availability", exchange -> handle(exchange, "availability", "GET", this::availability));
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Booking API listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns a latency percentile in milliseconds for one endpoint across all status codes,
+     * or 0 if it has not been called.
+     */
+    public double getLatencyPercentile(String endpoint, double percentile) {
+        double worst = 0.0;
+        for (Timer timer : registry.find("http.request.latency").tag("endpoint", endpoint).timers()) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == percentile) {
+                    worst = Math.max(worst, value.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Returns how many requests an endpoint has answered.
+     */
+    public long getRequestCount(String endpoint) {
+        long count = 0;
+        for (Timer timer : registry.find("http.request.latency").tag("endpoint", endpoint).timers()) {
+            count += timer.count();
+        }
+        return count;
+    }
+
+    /**
+     * Stops accepting connections, gives in-flight exchanges a moment to finish, then stops.
+     */
+    @Override
+    public void close() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+    }
+
+    private Response book(HttpExchange exchange) throws IOException {
+        BookingRequest request = readRequest(exchange);
+        BookingOutcome outcome = service.tryBookRoom(request.getRoomNumber());
+        int status = switch (outcome) {
+            case BOOKED -> 200;
+            case SOLD_OUT -> 409;
+            case NOT_FOUND -> 404;
+            case ERROR -> 500;
+        };
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("roomNumber", request.getRoomNumber());
+        body.put("guest", request.getGuest());
+        body.put("outcome", outcome);
+        return new Response(status, body);
+    }
+
+    private Response release(HttpExchange exchange) throws IOException {
+        BookingRequest request = readRequest(exchange);
+        if (service.getRoom(request.getRoomNumber()) == null) {
+            return Response.error(404, "Room " + request.getRoomNumber() + " not found");
+        }
+        service.releaseRoom(request.getRoomNumber());
+        return new Response(200, Map.of("roomNumber", request.getRoomNumber(), "released", true));
+    }
+
+    private Response getRoom(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        int roomNumber = parseInt(path.substring("/rooms/".length()), "room number");
+        RoomState room = service.getRoomSnapshot().get(roomNumber);
+        if (room == null) {
+            return Response.error(404, "Room " + roomNumber + " not found");
+        }
+        return new Response(200, room);
+    }
+
+    private Response availability(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if (!query.containsKey("roomNumber")) {
+            List<RoomState> available = new ArrayList<>();
+            service.getRoomSnapshot().forEach(room -> {
+                if (room.getAvailableRooms() > 0) {
+                    available.add(room);
+                }
+            });
+            return new Response(200, available);
+        }
+
+        int roomNumber = parseInt(query.get("roomNumber"), "room number");
+        Room room = service.getRoom(roomNumber);
+        if (room == null) {
+            return Response.error(404, "Room " + roomNumber + " not found");
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("roomNumber", roomNumber);
+        if (query.containsKey("checkIn") || query.containsKey("checkOut")) {
+            LocalDate checkIn = parseDate(query.get("checkIn"), "checkIn");
+            LocalDate checkOut = parseDate(query.get("checkOut"), "checkOut");
+            body.put("checkIn", checkIn.toString());
+            body.put("checkOut", checkOut.toString());
+            body.put("available", service.isAvailable(roomNumber, checkIn, checkOut));
+        } else {
+            body.put("available", room.getAvailableRooms() > 0);
+        }
+        return new Response(200, body);
+    }
+
+    /**
+     * Runs a handler and writes its response, mapping bad input to 400 and anything
+     * unexpected to 500, and records the exchange's latency.
+     */
+    private void handle(HttpExchange exchange, String endpoint, String method, Handler handler) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                response = Response.error(405, "Use " + method);
+            } else {
+                response = handler.handle(exchange);
+            }
+        } catch (JsonProcessingException e) {
+            response = Response.error(400, "Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error handling {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage());
+            response = Response.error(500, "Internal error");
+        }
+
+        try (exchange) {
+            byte[] body = WRITER.writeValueAsBytes(response.body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            logger.debug("Client went away before the response was written: {}", e.getMessage());
+        } finally {
+            latencyTimer(endpoint, response.status).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer latencyTimer(String endpoint, int status) {
+        return latencyTimers.computeIfAbsent(endpoint + ' ' + status, key -> Timer.builder("http.request.latency")
+            .description("Time to handle an HTTP request")
+            .tag("endpoint", endpoint)
+            .tag("status", String.valueOf(status))
+            .publishPercentiles(0.5, 0.99)
+            .register(registry));
+    }
+
+    /**
+     * Reads a booking request body. The server fronts a single hotel's inventory, so a request
+     * for any other hotel is rejected rather than applied to the wrong rooms.
+     */
+    private static BookingRequest readRequest(HttpExchange exchange) throws IOException {
+        BookingRequest request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = REQUEST_READER.readValue(in);
+        }
+        if (!HotelId.DEFAULT.equals(request.getHotelId())) {
+            throw new IllegalArgumentException("Unknown hotel: " + request.getHotelId().getValue());
+        }
+        return request;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Serves the sample rooms on -Dhttp.port (8080 by default) until the process is stopped.
+     *
+     * Idle keep-alive connections cost only a socket, so this launcher keeps up to
+     * MAX_IDLE_CONNECTIONS of them open unless -Dsun.net.httpserver.maxIdleConnections says
+     * otherwise; the JDK default of 200 would force most clients to reconnect under high
+     * concurrency. The JDK reads the property once, when the first server is created, and
+     * applies it to every server in the JVM, so it belongs to the launcher, not the class.
+     */
+    public static void main(String[] args) throws IOException {
+        System.getProperties().putIfAbsent(MAX_IDLE_CONNECTIONS_PROPERTY, String.valueOf(MAX_IDLE_CONNECTIONS));
+        RoomDatabaseAccessService service = new RoomDatabaseAccessService();
+        service.initializeRooms();
+        BookingHttpServer server = new BookingHttpServer(service,
+            new InetSocketAddress(Integer.getInteger("http.port", 8080)));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        final int status;
+        final Object body;
+
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Map.of("error", message));
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.kayak.hotelsearch.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only binary journal of booking mutations.
+ * Records are written into memory-mapped segment files, so an append is a 32-byte copy into
+ * the page cache; durability is governed by the FsyncPolicy. Segments are named after the
+ * sequence number of their first record and are replayed in that order on recovery.
+ *
+ * Record layout (little-endian, 32 bytes):
+ *   0  long sequence
+ *   8  byte type (0 marks unused space)
+ *   12 int  roomNumber
+ *   16 int  units
+ *   20 int  checkInDay
+ *   24 int  checkOutDay
+ *   28 int  CRC32C of bytes 0-27
+ * A record whose type is 0, whose checksum does not match, or whose sequence is not the one
+ * after its predecessor (the file name's sequence for the first) ends the segment, which is how
+ * a write torn by a crash is detected and discarded. Mapped pages reach the disk in any order,
+ * so valid records can survive beyond a torn one; reopening the journal erases them before the
+ * torn slot is reused.
+ */
+public final class BookingJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(BookingJournal.class);
+
+    public static final int RECORD_SIZE = 32;
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final Object syncLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private volatile long lastAppendedSequence;
+    private long durableSequence;
+
+    /**
+     * Opens the journal in a directory, continuing after the last valid record.
+     * With FsyncPolicy.INTERVAL, flushIntervalMs sets how often the journal is forced.
+     */
+    public BookingJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long flushIntervalMs)
+            throws IOException {
+        if (segmentSize < RECORD_SIZE || segmentSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Segment size must be a positive multiple of " + RECORD_SIZE);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+        Files.createDirectories(directory);
+        openTail();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Opens the journal with the default segment size.
+     */
+    public BookingJournal(Path directory, FsyncPolicy fsyncPolicy) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, fsyncPolicy, 10);
+    }
+
+    /**
+     * Appends an undated booking or release of some units of a room.
+     * Returns the record's sequence number once it is as durable as the policy requires.
+     */
+    public long append(JournalRecord.Type type, int roomNumber, int units) {
+        return append(type, roomNumber, units, 0, 0);
+    }
+
+    /**
+     * Appends a dated stay booking or release.
+     * Returns the record's sequence number once it is as durable as the policy requires.
+     */
+    public long appendStay(JournalRecord.Type type, int roomNumber, long checkInDay, long checkOutDay) {
+        return append(type, roomNumber, 1, Math.toIntExact(checkInDay), Math.toIntExact(checkOutDay));
+    }
+
+    private long append(JournalRecord.Type type, int roomNumber, int units, int checkInDay, int checkOutDay) {
+        long sequence;
+        synchronized (this) {
+            if (segment == null) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (segment.remaining() < RECORD_SIZE) {
+                rollSegment();
+            }
+            sequence = nextSequence++;
+            writeRecord(segment, sequence, type, roomNumber, units, checkInDay, checkOutDay);
+            lastAppendedSequence = sequence;
+        }
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    /**
+     * Forces every record appended so far to stable storage.
+     */
+    public void flush() {
+        awaitDurable(lastAppendedSequence);
+    }
+
+    /**
+     * Group commit: the first writer to arrive forces everything appended so far, and writers
+     * whose records that force already covered return without forcing again.
+     */
+    private void awaitDurable(long sequence) {
+        synchronized (syncLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            MappedByteBuffer current;
+            long covered;
+            synchronized (this) {
+                current = segment;
+                covered = lastAppendedSequence;
+            }
+            if (current != null) {
+                current.force();
+            }
+            durableSequence = covered;
+        }
+    }
+
+    /**
+     * Returns the sequence number the next appended record will get.
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Replays every valid record in sequence order.
+     * Returns the number of records replayed.
+     */
+    public long replay(Consumer<JournalRecord> handler) throws IOException {
+        return replay(directory, 0, handler);
+    }
+
+    /**
+     * Replays valid records with a sequence number at or above fromSequence.
+     * Returns the number of records replayed.
+     */
+    public long replayFrom(long fromSequence, Consumer<JournalRecord> handler) throws IOException {
+        return replay(directory, fromSequence, handler);
+    }
+
+    static long replay(Path directory, long fromSequence, Consumer<JournalRecord> handler) throws IOException {
+        long count = 0;
+        long expected = -1;
+        for (Path segmentFile : listSegments(directory)) {
+            long first = firstSequence(segmentFile);
+            if (expected >= 0 && first != expected) {
+                logger.warn("Journal records {} to {} are missing before {}", expected, first - 1, segmentFile);
+            }
+            expected = first;
+            try (FileChannel readChannel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                JournalRecord record;
+                while ((record = readRecord(buffer, expected)) != null) {
+                    expected++;
+                    if (record.getSequence() >= fromSequence) {
+                        handler.accept(record);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Deletes segments whose records all have a sequence number below the given one.
+     * The newest segment is always kept because it is still being written.
+     * Returns the number of segments deleted.
+     */
+    public synchronized int deleteSegmentsBefore(long sequence) throws IOException {
+        List<Path> segments = listSegments(directory);
+        int deleted = 0;
+        // A segment is fully covered when the segment after it starts at or below the sequence
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1)) <= sequence) {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (segment == null) {
+                    return;
+                }
+                if (fsyncPolicy != FsyncPolicy.NEVER) {
+                    segment.force();
+                }
+                segment = null;
+                channel.close();
+            }
+        }
+    }
+
+    private void openTail() throws IOException {
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            nextSequence = 0;
+            lastAppendedSequence = -1;
+            durableSequence = -1;
+            openSegment(0);
+            return;
+        }
+
+        Path tail = segments.get(segments.size() - 1);
+        long sequence = firstSequence(tail);
+        channel = FileChannel.open(tail, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        while (readRecord(segment, sequence) != null) {
+            sequence++;
+        }
+        // readRecord stops before a torn or empty record, so the next append overwrites it
+        eraseFrom(segment, segment.position());
+        nextSequence = sequence;
+        lastAppendedSequence = sequence - 1;
+        durableSequence = sequence - 1;
+        logger.info("Opened journal {} at sequence {}", directory, nextSequence);
+    }
+
+    /**
+     * Marks every slot from start onwards unused, so records written before a crash cannot be
+     * mistaken for ones appended after it. Forced at once if anything was erased, whatever the
+     * policy, since a later crash must not bring them back.
+     */
+    private static void eraseFrom(MappedByteBuffer buffer, int start) {
+        boolean erased = false;
+        for (int slot = start; slot + RECORD_SIZE <= buffer.limit(); slot += RECORD_SIZE) {
+            if (buffer.get(slot + 8) != 0) {
+                buffer.put(slot + 8, (byte) 0);
+                erased = true;
+            }
+        }
+        if (erased) {
+            logger.warn("Erased stale journal records after position {}", start);
+            buffer.force();
+        }
+    }
+
+    private void rollSegment() {
+        try {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                segment.force();
+            }
+            channel.close();
+            openSegment(nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll journal segment", e);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeRecord(MappedByteBuffer buffer, long sequence, JournalRecord.Type type,
+                                    int roomNumber, int units, int checkInDay, int checkOutDay) {
+        int start = buffer.position();
+        buffer.putLong(start, sequence);
+        buffer.put(start + 8, type.code());
+        buffer.put(start + 9, (byte) 0);
+        buffer.putShort(start + 10, (short) 0);
+        buffer.putInt(start + 12, roomNumber);
+        buffer.putInt(start + 16, units);
+        buffer.putInt(start + 20, checkInDay);
+        buffer.putInt(start + 24, checkOutDay);
+        buffer.putInt(start + 28, checksum(buffer, start));
+        buffer.position(start + RECORD_SIZE);
+    }
+
+    /**
+     * Reads the record at the buffer's position, advancing past it only if it is valid and has
+     * the expected sequence number.
+     */
+    private static JournalRecord readRecord(MappedByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        if (buffer.limit() - start < RECORD_SIZE) {
+            return null;
+        }
+        JournalRecord.Type type = JournalRecord.Type.fromCode(buffer.get(start + 8));
+        if (type == null || buffer.getLong(start) != expectedSequence
+                || buffer.getInt(start + 28) != checksum(buffer, start)) {
+            return null;
+        }
+        buffer.position(start + RECORD_SIZE);
+        return new JournalRecord(buffer.getLong(start), type, buffer.getInt(start + 12),
+                buffer.getInt(start + 16), buffer.getInt(start + 20), buffer.getInt(start + 24));
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, RECORD_SIZE - 4));
+        return (int) crc.getValue();
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .toList());
+            segments.sort(null);
+            return segments;
+        }
+    }
+
+    static long firstSequence(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("Background journal flush failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.kayak.hotelsearch.journal;
+
+/**
+ * When journal writes are forced to stable storage.
+ * NEVER: Leave flushing to the operating system; a crash of the machine can lose recent records
+ * INTERVAL: Force the journal in the background at a fixed interval
+ * ALWAYS: Each mutation waits until a force covers its record; concurrent writers share one
+ *         force (group commit), so the cost is amortised across everyone waiting
+ */
+public enum FsyncPolicy {
+    NEVER,
+    INTERVAL,
+    ALWAYS
+}
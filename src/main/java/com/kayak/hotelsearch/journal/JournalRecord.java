@@ -0,0 +1,82 @@
+package com.kayak.hotelsearch.journal;
+
+/**
+ * A single mutation read back from the booking journal.
+ * Undated records carry a unit count; stay records carry [checkIn, checkOut) epoch days.
+ */
+public final class JournalRecord {
+    private final long sequence;
+    private final Type type;
+    private final int roomNumber;
+    private final int units;
+    private final int checkInDay;
+    private final int checkOutDay;
+
+    public JournalRecord(long sequence, Type type, int roomNumber, int units, int checkInDay, int checkOutDay) {
+        this.sequence = sequence;
+        this.type = type;
+        this.roomNumber = roomNumber;
+        this.units = units;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public int getUnits() {
+        return units;
+    }
+
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JournalRecord{seq=%d, type=%s, room=%d, units=%d, checkIn=%d, checkOut=%d}",
+                sequence, type, roomNumber, units, checkInDay, checkOutDay);
+    }
+
+    /**
+     * Kinds of journaled mutation. Codes are stored on disk and must never change.
+     */
+    public enum Type {
+        BOOK(1),
+        RELEASE(2),
+        BOOK_STAY(3),
+        RELEASE_STAY(4);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        byte code() {
+            return code;
+        }
+
+        static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+}
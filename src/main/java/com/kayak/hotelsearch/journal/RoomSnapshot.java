@@ -0,0 +1,209 @@
+package com.kayak.hotelsearch.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.room.RoomType;
+
+/**
+ * Point-in-time copy of the full room table, tied to a journal position.
+ * Every journal record with a sequence below journalSequence is already reflected in the
+ * snapshot, so recovery loads the snapshot and replays only the records after it.
+ *
+ * File layout (little-endian):
+ *   int magic, int version, long journalSequence, int roomCount, then per room:
+ *   int roomNumber, byte roomType ordinal (-1 if none), double price, int guest length
+ *   (-1 if none) + UTF-8 bytes, int unitCount, int availableRooms, byte isAvailable,
+ *   int stayCount + (int unit, int checkInDay, int checkOutDay) per stay;
+ *   and finally an int CRC32C of everything before it.
+ */
+public final class RoomSnapshot {
+    private static final int MAGIC = 0x524F4F4D; // "ROOM"
+    private static final int VERSION = 1;
+
+    private final long journalSequence;
+    private final List<Entry> entries;
+
+    public RoomSnapshot(long journalSequence, List<Entry> entries) {
+        this.journalSequence = journalSequence;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Writes the snapshot to a file atomically: readers see either the old file or the new one.
+     */
+    public void writeTo(Path file) throws IOException {
+        int size = 4 + 4 + 8 + 4 + 4;
+        List<byte[]> guests = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            byte[] guest = entry.currentGuest == null ? null : entry.currentGuest.getBytes(StandardCharsets.UTF_8);
+            guests.add(guest);
+            size += 4 + 1 + 8 + 4 + (guest == null ? 0 : guest.length) + 4 + 4 + 1 + 4 + entry.stays.length * 4;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(journalSequence).putInt(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            byte[] guest = guests.get(i);
+            buffer.putInt(entry.roomNumber);
+            buffer.put(entry.roomType == null ? -1 : (byte) entry.roomType.ordinal());
+            buffer.putDouble(entry.price);
+            buffer.putInt(guest == null ? -1 : guest.length);
+            if (guest != null) {
+                buffer.put(guest);
+            }
+            buffer.putInt(entry.unitCount).putInt(entry.availableRooms).put((byte) (entry.isAvailable ? 1 : 0));
+            buffer.putInt(entry.stays.length / 3);
+            for (int value : entry.stays) {
+                buffer.putInt(value);
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads a snapshot by memory-mapping the file, so start-up cost follows snapshot size.
+     *
+     * @throws IOException if the file is truncated, corrupt or of an unknown version
+     */
+    public static RoomSnapshot readFrom(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < 24) {
+                throw new IOException("Snapshot " + file + " is truncated");
+            }
+
+            int contentLength = buffer.limit() - 4;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, contentLength));
+            if ((int) crc.getValue() != buffer.getInt(contentLength)) {
+                throw new IOException("Snapshot " + file + " failed its checksum");
+            }
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Snapshot " + file + " has an unknown format");
+            }
+
+            long journalSequence = buffer.getLong();
+            int roomCount = buffer.getInt();
+            RoomType[] roomTypes = RoomType.values();
+            List<Entry> entries = new ArrayList<>(roomCount);
+            for (int i = 0; i < roomCount; i++) {
+                int roomNumber = buffer.getInt();
+                byte typeOrdinal = buffer.get();
+                double price = buffer.getDouble();
+                int guestLength = buffer.getInt();
+                String guest = null;
+                if (guestLength >= 0) {
+                    byte[] bytes = new byte[guestLength];
+                    buffer.get(bytes);
+                    guest = new String(bytes, StandardCharsets.UTF_8);
+                }
+                int unitCount = buffer.getInt();
+                int availableRooms = buffer.getInt();
+                boolean isAvailable = buffer.get() != 0;
+                int[] stays = new int[buffer.getInt() * 3];
+                for (int s = 0; s < stays.length; s++) {
+                    stays[s] = buffer.getInt();
+                }
+                entries.add(new Entry(roomNumber, typeOrdinal < 0 ? null : roomTypes[typeOrdinal], price, guest,
+                        unitCount, availableRooms, isAvailable, stays));
+            }
+            return new RoomSnapshot(journalSequence, entries);
+        }
+    }
+
+    /**
+     * Captured state of one room.
+     */
+    public static final class Entry {
+        private final int roomNumber;
+        private final RoomType roomType;
+        private final double price;
+        private final String currentGuest;
+        private final int unitCount;
+        private final int availableRooms;
+        private final boolean isAvailable;
+        private final int[] stays;
+
+        Entry(int roomNumber, RoomType roomType, double price, String currentGuest, int unitCount,
+              int availableRooms, boolean isAvailable, int[] stays) {
+            this.roomNumber = roomNumber;
+            this.roomType = roomType;
+            this.price = price;
+            this.currentGuest = currentGuest;
+            this.unitCount = unitCount;
+            this.availableRooms = availableRooms;
+            this.isAvailable = isAvailable;
+            this.stays = stays;
+        }
+
+        /**
+         * Copies a room's current state. Callers must stop mutations for a consistent copy.
+         */
+        public static Entry of(Room room) {
+            return new Entry(room.getRoomNumber(), room.getRoomType(), room.getPrice(), room.getCurrentGuest(),
+                    room.getCalendar().getUnitCount(), room.getAvailableRooms(), room.isAvailable(),
+                    room.getCalendar().stays());
+        }
+
+        /**
+         * Builds a live room with this state.
+         */
+        public Room toRoom() {
+            Room room = new Room(roomNumber, roomType, price, currentGuest, unitCount);
+            room.setAvailableRooms(availableRooms);
+            room.setAvailable(isAvailable);
+            for (int i = 0; i < stays.length; i += 3) {
+                room.getCalendar().restore(stays[i], stays[i + 1], stays[i + 2]);
+            }
+            return room;
+        }
+
+        public int getRoomNumber() {
+            return roomNumber;
+        }
+
+        public int getAvailableRooms() {
+            return availableRooms;
+        }
+
+        public int getStayCount() {
+            return stays.length / 3;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kayak.hotelsearch.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes room snapshots next to the journal and compacts the journal behind them.
+ * Snapshot files are named after the journal sequence they cover, so the newest snapshot is
+ * the one with the highest number. Once a snapshot is on disk, older snapshots and the
+ * journal segments it fully covers are deleted.
+ */
+public class SnapshotManager implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotManager.class);
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final BookingJournal journal;
+    private final Supplier<RoomSnapshot> capture;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a manager that captures state with the given supplier, typically
+     * RoomDatabaseAccessService::captureSnapshot.
+     */
+    public SnapshotManager(BookingJournal journal, Supplier<RoomSnapshot> capture) {
+        this.journal = journal;
+        this.capture = capture;
+    }
+
+    /**
+     * Captures and writes a snapshot, then compacts the journal behind it.
+     * Returns the path of the snapshot written.
+     */
+    public synchronized Path takeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        RoomSnapshot snapshot = capture.get();
+        long sequence = snapshot.getJournalSequence();
+        Path file = journal.getDirectory().resolve(
+            String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        snapshot.writeTo(file);
+
+        for (Path older : listSnapshots(journal.getDirectory())) {
+            if (!older.equals(file)) {
+                Files.deleteIfExists(older);
+            }
+        }
+        int deleted = journal.deleteSegmentsBefore(sequence);
+        logger.info("Wrote snapshot of {} rooms at journal sequence {} in {} ms, compacted {} segments",
+            snapshot.getEntries().size(), sequence, (System.nanoTime() - start) / 1_000_000, deleted);
+        return file;
+    }
+
+    /**
+     * Takes a snapshot every intervalMs on a background thread.
+     */
+    public synchronized void start(long intervalMs) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Snapshots are already scheduled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::takeSnapshotQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the newest snapshot in a directory, or returns null if there is none.
+     */
+    public static RoomSnapshot loadLatest(Path directory) throws IOException {
+        List<Path> snapshots = listSnapshots(directory);
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        return RoomSnapshot.readFrom(snapshots.get(snapshots.size() - 1));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    static List<Path> listSnapshots(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> snapshots = new ArrayList<>(files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                })
+                .toList());
+            snapshots.sort(null);
+            return snapshots;
+        }
+    }
+
+    private void takeSnapshotQuietly() {
+        try {
+            takeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Background snapshot failed: {}", e.getMessage());
+        }
+    }
+}
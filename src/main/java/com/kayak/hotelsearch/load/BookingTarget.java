@@ -0,0 +1,30 @@
+package com.kayak.hotelsearch.load;
+
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+
+/**
+ * The system under load: books one scheduled request and reports its outcome.
+ */
+@FunctionalInterface
+public interface BookingTarget {
+
+    BookingOutcome book(ScheduledRequest request);
+
+    /**
+     * Books against a RoomDatabaseAccessService: dated requests book a stay, others one unit.
+     */
+    static BookingTarget of(RoomDatabaseAccessService service) {
+        return request -> {
+            int roomNumber = request.getRequest().getRoomNumber();
+            if (!request.hasStay()) {
+                return service.tryBookRoom(roomNumber);
+            }
+            if (service.getRoom(roomNumber) == null) {
+                return BookingOutcome.NOT_FOUND;
+            }
+            return service.bookRoom(roomNumber, request.getCheckIn(), request.getCheckOut())
+                ? BookingOutcome.BOOKED : BookingOutcome.SOLD_OUT;
+        };
+    }
+}
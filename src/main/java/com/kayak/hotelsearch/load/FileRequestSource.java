@@ -0,0 +1,41 @@
+package com.kayak.hotelsearch.load;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import com.kayak.hotelsearch.booking.BookingRequest;
+import com.kayak.hotelsearch.booking.BookingRequestReader;
+
+/**
+ * Replays a booking_requests.json array or NDJSON file at a fixed request rate.
+ * The file carries no timing, so requests are spaced evenly at 1/requestsPerSecond.
+ */
+public class FileRequestSource implements RequestSource {
+    private final BookingRequestReader reader;
+    private final double intervalNanos;
+    private long sent;
+
+    /**
+     * @throws IllegalArgumentException if requestsPerSecond is not positive
+     */
+    public FileRequestSource(Path path, double requestsPerSecond) throws IOException {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Request rate must be positive");
+        }
+        this.intervalNanos = 1e9 / requestsPerSecond;
+        this.reader = BookingRequestReader.open(path);
+    }
+
+    @Override
+    public ScheduledRequest next() throws IOException {
+        BookingRequest request = reader.next();
+        if (request == null) {
+            return null;
+        }
+        return new ScheduledRequest((long) (sent++ * intervalNanos), request);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
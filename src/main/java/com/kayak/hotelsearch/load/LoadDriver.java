@@ -0,0 +1,85 @@
+package com.kayak.hotelsearch.load;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Command-line entry point for load runs against an in-memory RoomDatabaseAccessService.
+ *
+ * -Dload.source picks the traffic:
+ *   synthetic: Poisson arrivals at -Dload.rps for -Dload.requests requests over rooms
+ *              -Dload.firstRoom..+-Dload.roomCount with -Dload.unitsPerRoom units each,
+ *              Zipf room skew -Dload.skew and, if -Dload.maxNights is above 0, stays booked
+ *              on average -Dload.meanLeadDays ahead
+ *   file:      a booking_requests.json array or NDJSON file (-Dload.path) at -Dload.rps
+ *   log:       traffic recovered from a booking-system.log (-Dload.path), replayed at its
+ *              recorded pace times -Dload.speedup, with idle gaps cut to -Dload.maxGapMillis
+ * File and log runs book against the sample rooms from initializeRooms().
+ */
+public class LoadDriver {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String sourceName = System.getProperty("load.source", "synthetic");
+        double rps = Double.parseDouble(System.getProperty("load.rps", "1000"));
+        RoomDatabaseAccessService service = new RoomDatabaseAccessService();
+
+        RequestSource source;
+        switch (sourceName) {
+            case "synthetic" -> {
+                int firstRoom = Integer.getInteger("load.firstRoom", 100);
+                int roomCount = Integer.getInteger("load.roomCount", 900);
+                int unitsPerRoom = Integer.getInteger("load.unitsPerRoom", 1_000);
+                for (int i = 0; i < roomCount; i++) {
+                    service.addRoom(new Room(firstRoom + i, null, unitsPerRoom));
+                }
+                source = new SyntheticRequestSource(rps, Long.getLong("load.requests", 10_000L), firstRoom,
+                    roomCount, Double.parseDouble(System.getProperty("load.skew", "1.0")),
+                    Integer.getInteger("load.meanLeadDays", 30), Integer.getInteger("load.maxNights", 0),
+                    Long.getLong("load.seed", System.nanoTime()));
+            }
+            case "file" -> {
+                service.initializeRooms();
+                source = new FileRequestSource(
+                    Path.of(System.getProperty("load.path", "src/main/resources/booking_requests.json")), rps);
+            }
+            case "log" -> {
+                service.initializeRooms();
+                source = new LogReplaySource(Path.of(System.getProperty("load.path", "logs/booking-system.log")),
+                    Double.parseDouble(System.getProperty("load.speedup", "1.0")),
+                    Duration.ofMillis(Long.getLong("load.maxGapMillis", 1_000L)));
+            }
+            default -> throw new IllegalArgumentException("Unknown load source " + sourceName);
+        }
+
+        logger.info("Starting {} load run", sourceName);
+        LoadReport report;
+        try (source) {
+            report = new LoadGenerator(BookingTarget.of(service)).run(source);
+        }
+        logReport(report);
+    }
+
+    private static void logReport(LoadReport report) {
+        logger.info("===== Load Report =====");
+        logger.info("Requests: {}, throughput {} req/s, max send lag {}ms", report.getRequestCount(),
+            String.format("%.1f", report.getThroughput()), String.format("%.3f", report.getMaxSendLag()));
+        for (double percentile : REPORTED_PERCENTILES) {
+            logger.info("p{}: {}ms (uncorrected {}ms)", percentile,
+                String.format("%.3f", report.getLatencyPercentile(percentile)),
+                String.format("%.3f", report.getUncorrectedLatencyPercentile(percentile)));
+        }
+        logger.info("max: {}ms", String.format("%.3f", report.getMaxLatency()));
+        for (BookingOutcome outcome : BookingOutcome.values()) {
+            logger.info("{} bookings: {}", outcome, report.getOutcomeCount(outcome));
+        }
+        logger.info("=======================");
+    }
+}
@@ -0,0 +1,78 @@
+package com.kayak.hotelsearch.load;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Open-loop load generator.
+ *
+ * Each request is sent at its scheduled time on its own virtual thread, whether or not earlier
+ * requests have finished, so a slow system faces a growing backlog just as it would with real
+ * users. Latency is measured from the scheduled send time rather than the actual one: if the
+ * sender itself falls behind (a GC pause, a stalled source), the requests it should have sent
+ * during the stall are charged for the wait. Measuring from the actual send time hides exactly
+ * those requests ("coordinated omission"), so that figure is kept only for comparison.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final BookingTarget target;
+
+    public LoadGenerator(BookingTarget target) {
+        this.target = target;
+    }
+
+    /**
+     * Sends every request from the source on schedule and waits for all of them to finish.
+     */
+    public LoadReport run(RequestSource source) throws IOException, InterruptedException {
+        Histogram corrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        Histogram uncorrected = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        AtomicLongArray outcomes = new AtomicLongArray(BookingOutcome.values().length);
+        long requests = 0;
+        long maxSendLagNanos = 0;
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ScheduledRequest request;
+            while ((request = source.next()) != null) {
+                long intended = start + request.getSendAtNanos();
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+                long sent = System.nanoTime();
+                maxSendLagNanos = Math.max(maxSendLagNanos, sent - intended);
+
+                ScheduledRequest scheduled = request;
+                executor.execute(() -> {
+                    BookingOutcome outcome;
+                    try {
+                        outcome = target.book(scheduled);
+                    } catch (RuntimeException e) {
+                        logger.error("Error booking room {}: {}", scheduled.getRequest().getRoomNumber(), e.getMessage());
+                        outcome = BookingOutcome.ERROR;
+                    }
+                    long finished = System.nanoTime();
+                    corrected.recordValue(finished - intended);
+                    uncorrected.recordValue(finished - sent);
+                    outcomes.incrementAndGet(outcome.ordinal());
+                });
+                requests++;
+            }
+        }
+        return new LoadReport(requests, System.nanoTime() - start, maxSendLagNanos, corrected, uncorrected, outcomes);
+    }
+}
@@ -0,0 +1,70 @@
+package com.kayak.hotelsearch.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Results of one load generator run. Latencies are in milliseconds.
+ */
+public class LoadReport {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long requestCount;
+    private final long elapsedNanos;
+    private final long maxSendLagNanos;
+    private final Histogram latency;
+    private final Histogram uncorrectedLatency;
+    private final AtomicLongArray outcomes;
+
+    LoadReport(long requestCount, long elapsedNanos, long maxSendLagNanos, Histogram latency,
+               Histogram uncorrectedLatency, AtomicLongArray outcomes) {
+        this.requestCount = requestCount;
+        this.elapsedNanos = elapsedNanos;
+        this.maxSendLagNanos = maxSendLagNanos;
+        this.latency = latency;
+        this.uncorrectedLatency = uncorrectedLatency;
+        this.outcomes = outcomes;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Returns completed requests per second over the whole run.
+     */
+    public double getThroughput() {
+        return elapsedNanos > 0 ? requestCount * 1e9 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Returns a latency percentile (0-100) measured from each request's scheduled send time.
+     */
+    public double getLatencyPercentile(double percentile) {
+        return latency.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns a latency percentile (0-100) measured from the actual send time, which
+     * understates latency whenever the sender fell behind schedule.
+     */
+    public double getUncorrectedLatencyPercentile(double percentile) {
+        return uncorrectedLatency.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    public double getMaxLatency() {
+        return latency.getMaxValue() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns how far behind schedule the slowest send was.
+     */
+    public double getMaxSendLag() {
+        return maxSendLagNanos / NANOS_PER_MILLI;
+    }
+
+    public long getOutcomeCount(BookingOutcome outcome) {
+        return outcomes.get(outcome.ordinal());
+    }
+}
@@ -0,0 +1,114 @@
+package com.kayak.hotelsearch.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import com.kayak.hotelsearch.booking.BookingRequest;
+
+/**
+ * Recovers booking traffic from logs/booking-system.log and replays it with its recorded timing.
+ *
+ * Each booking attempt ends in exactly one outcome line, so a request is recovered per outcome
+ * line: Main's "processed booking" lines when the log has any (they also name the guest),
+ * otherwise RoomDatabaseAccessService's per-attempt outcomes, which is all older logs contain.
+ * Stay dates are recovered where the line has them. Send times keep the recorded gaps between
+ * lines, divided by the speed-up factor; a gap longer than maxGap (the idle time between two
+ * runs of the application, say) is cut to maxGap first.
+ */
+public class LogReplaySource implements RequestSource {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final String PREFIX = "^(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}) \\[[^\\]]*\\] \\w+\\s+";
+    private static final Pattern MAIN_OUTCOME = Pattern.compile(PREFIX
+        + "\\S*Main - (?:Successfully processed|Failed to process|Error processing) booking: Room (\\d+) for (.*?)(?: - .*)?$");
+    private static final Pattern SERVICE_OUTCOME = Pattern.compile(PREFIX
+        + "\\S*RoomDatabaseAccessService - (?:Successfully booked room (\\d+)(?: from (\\S+) to (\\S+))?"
+        + "|Room (\\d+) (?:is sold out|not found|has no unit free from (\\S+) to (\\S+))"
+        + "|Failed to book room (\\d+) after \\d+ attempts)$");
+
+    private final BufferedReader reader;
+    private final Pattern outcome;
+    private final double speedup;
+    private final long maxGapNanos;
+    private LocalDateTime lastTimestamp;
+    private double sendAtNanos;
+
+    /**
+     * @throws IllegalArgumentException if speedup or maxGap is not positive
+     */
+    public LogReplaySource(Path path, double speedup, Duration maxGap) throws IOException {
+        if (speedup <= 0 || maxGap.isNegative() || maxGap.isZero()) {
+            throw new IllegalArgumentException("Speed-up and maximum gap must be positive");
+        }
+        this.speedup = speedup;
+        this.maxGapNanos = maxGap.toNanos();
+        try (Stream<String> lines = Files.lines(path)) {
+            this.outcome = lines.anyMatch(line -> MAIN_OUTCOME.matcher(line).matches()) ? MAIN_OUTCOME : SERVICE_OUTCOME;
+        }
+        this.reader = Files.newBufferedReader(path);
+    }
+
+    @Override
+    public ScheduledRequest next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Matcher matcher = outcome.matcher(line);
+            if (!matcher.matches()) {
+                continue;
+            }
+            try {
+                return toRequest(matcher);
+            } catch (DateTimeParseException e) {
+                // A garbled line is skipped like any other non-booking line
+            }
+        }
+        return null;
+    }
+
+    private ScheduledRequest toRequest(Matcher matcher) {
+        LocalDateTime timestamp = LocalDateTime.parse(matcher.group(1), TIMESTAMP);
+        if (lastTimestamp != null) {
+            // Lines from different threads can be slightly out of order; never schedule backwards
+            long gapNanos = Math.max(0, Duration.between(lastTimestamp, timestamp).toNanos());
+            sendAtNanos += Math.min(gapNanos, maxGapNanos) / speedup;
+        }
+        if (lastTimestamp == null || timestamp.isAfter(lastTimestamp)) {
+            lastTimestamp = timestamp;
+        }
+
+        if (outcome == MAIN_OUTCOME) {
+            BookingRequest request = new BookingRequest(Integer.parseInt(matcher.group(2)), matcher.group(3));
+            return new ScheduledRequest((long) sendAtNanos, request);
+        }
+        int roomNumber = Integer.parseInt(firstNonNull(matcher.group(2), matcher.group(5), matcher.group(8)));
+        BookingRequest request = new BookingRequest(roomNumber, null);
+        String checkIn = firstNonNull(matcher.group(3), matcher.group(6));
+        String checkOut = firstNonNull(matcher.group(4), matcher.group(7));
+        if (checkIn != null && checkOut != null) {
+            return new ScheduledRequest((long) sendAtNanos, request, LocalDate.parse(checkIn), LocalDate.parse(checkOut));
+        }
+        return new ScheduledRequest((long) sendAtNanos, request);
+    }
+
+    private static String firstNonNull(String... values) {
+        for (String value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.kayak.hotelsearch.load;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Stream of scheduled booking requests for the load generator, in send-time order.
+ */
+public interface RequestSource extends Closeable {
+
+    /**
+     * Returns the next request, or null once the source is exhausted.
+     */
+    ScheduledRequest next() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,49 @@
+package com.kayak.hotelsearch.load;
+
+import java.time.LocalDate;
+import com.kayak.hotelsearch.booking.BookingRequest;
+
+/**
+ * A booking request and the moment the load generator should send it.
+ * Stay dates are optional; without them the request books one unit of the room.
+ */
+public final class ScheduledRequest {
+    private final long sendAtNanos;
+    private final BookingRequest request;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+
+    public ScheduledRequest(long sendAtNanos, BookingRequest request) {
+        this(sendAtNanos, request, null, null);
+    }
+
+    public ScheduledRequest(long sendAtNanos, BookingRequest request, LocalDate checkIn, LocalDate checkOut) {
+        this.sendAtNanos = sendAtNanos;
+        this.request = request;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    /**
+     * Returns the intended send time in nanoseconds after the start of the run.
+     */
+    public long getSendAtNanos() {
+        return sendAtNanos;
+    }
+
+    public BookingRequest getRequest() {
+        return request;
+    }
+
+    public boolean hasStay() {
+        return checkIn != null && checkOut != null;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+}
@@ -0,0 +1,91 @@
+package com.kayak.hotelsearch.load;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import com.kayak.hotelsearch.booking.BookingRequest;
+
+/**
+ * Generates random booking traffic.
+ *
+ * Arrivals are a Poisson process at the given rate, which is how independent users arrive and
+ * is burstier than even spacing. Rooms are drawn from a Zipf distribution over the room range:
+ * skew 0 is uniform, and around 1 a handful of rooms take most of the traffic. With maxNights
+ * above 0 every request also carries a stay whose check-in is an exponentially distributed
+ * number of days after today (mean meanLeadDays) and whose length is uniform in 1..maxNights.
+ */
+public class SyntheticRequestSource implements RequestSource {
+    private final double meanIntervalNanos;
+    private final long requestCount;
+    private final int firstRoom;
+    private final double[] roomCdf;
+    private final int meanLeadDays;
+    private final int maxNights;
+    private final LocalDate today;
+    private final SplittableRandom random;
+    private long generated;
+    private double sendAtNanos;
+
+    /**
+     * @throws IllegalArgumentException if the rate, request count or room count is not positive,
+     *                                  or skew, meanLeadDays or maxNights is negative
+     */
+    public SyntheticRequestSource(double requestsPerSecond, long requestCount, int firstRoom, int roomCount,
+                                  double skew, int meanLeadDays, int maxNights, long seed) {
+        if (requestsPerSecond <= 0 || requestCount <= 0 || roomCount <= 0) {
+            throw new IllegalArgumentException("Request rate, request count and room count must be positive");
+        }
+        if (skew < 0 || meanLeadDays < 0 || maxNights < 0) {
+            throw new IllegalArgumentException("Skew, lead time and stay length cannot be negative");
+        }
+        this.meanIntervalNanos = 1e9 / requestsPerSecond;
+        this.requestCount = requestCount;
+        this.firstRoom = firstRoom;
+        this.roomCdf = zipfCdf(roomCount, skew);
+        this.meanLeadDays = meanLeadDays;
+        this.maxNights = maxNights;
+        this.today = LocalDate.now();
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public ScheduledRequest next() {
+        if (generated == requestCount) {
+            return null;
+        }
+        generated++;
+        // Exponential gaps between arrivals make a Poisson process
+        sendAtNanos += -Math.log(1.0 - random.nextDouble()) * meanIntervalNanos;
+
+        BookingRequest request = new BookingRequest(firstRoom + nextRoomIndex(), "Guest " + generated);
+        if (maxNights == 0) {
+            return new ScheduledRequest((long) sendAtNanos, request);
+        }
+        long leadDays = 1 + (long) (-Math.log(1.0 - random.nextDouble()) * meanLeadDays);
+        LocalDate checkIn = today.plusDays(leadDays);
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(maxNights));
+        return new ScheduledRequest((long) sendAtNanos, request, checkIn, checkOut);
+    }
+
+    private int nextRoomIndex() {
+        int index = Arrays.binarySearch(roomCdf, random.nextDouble());
+        // A miss returns -(insertion point) - 1; the insertion point is the room drawn
+        return Math.min(index < 0 ? -index - 1 : index, roomCdf.length - 1);
+    }
+
+    /**
+     * Returns the cumulative probabilities of ranks 1..n under Zipf(skew).
+     */
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            total += 1.0 / Math.pow(rank, skew);
+            cdf[rank - 1] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= total;
+        }
+        return cdf;
+    }
+}
@@ -3,22 +3,51 @@ package com.kayak.hotelsearch.metrics;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.ExecutionMode;
+import com.kayak.hotelsearch.room.RoomType;
 
 /**
  * Service for tracking booking-related metrics.
  * Uses Micrometer for metric collection and reporting.
+ *
+ * Booking latency is also recorded in HDR-backed percentile timers tagged by outcome, room
+ * type and retry count, once per LatencyWindow. Each window's percentiles cover only recent
+ * bookings, while counts and totals stay cumulative, so reading a window resets nothing.
  */
 public class BookingMetrics {
+    public static final double[] LATENCY_PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    // Retry counts are bucketed as 0, 1, 2 and 3+ to keep tag cardinality bounded
+    private static final int RETRY_BUCKETS = 4;
+    private static final int ROOM_TYPE_SLOTS = RoomType.values().length + 1;
+    private static final int WINDOWS = LatencyWindow.values().length;
+
     private final MeterRegistry registry;
     private final Counter successfulBookings;
     private final Counter failedBookings;
     private final Timer bookingProcessingTime;
     private final Counter concurrentBookings;
+    private final Map<ExecutionMode, Timer> processingTimeByMode;
+    private final Map<ExecutionMode, Double> throughputByMode;
+    private final Map<LatencyWindow, Timer> overallLatency;
+    private final AtomicReferenceArray<Timer> latencyByDimension;
 
     public BookingMetrics() {
-        this.registry = new SimpleMeterRegistry();
+        this(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates the metrics in the given registry, for example one backed by a test clock.
+     */
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
         
         // Initialize counters
         this.successfulBookings = Counter.builder("booking.successful")
@@ -37,6 +66,26 @@ public class BookingMetrics {
         this.bookingProcessingTime = Timer.builder("booking.processing.time")
             .description("Time taken to process booking requests")
             .register(registry);
+
+        // Per-mode timers publish p99 so execution modes can be compared
+        this.processingTimeByMode = new EnumMap<>(ExecutionMode.class);
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            processingTimeByMode.put(mode, Timer.builder("booking.processing.time.by.mode")
+                .description("Time taken to process booking requests per execution mode")
+                .tag("mode", mode.name())
+                .publishPercentiles(0.99)
+                .register(registry));
+        }
+        this.throughputByMode = new EnumMap<>(ExecutionMode.class);
+
+        this.overallLatency = new EnumMap<>(LatencyWindow.class);
+        for (LatencyWindow window : LatencyWindow.values()) {
+            overallLatency.put(window, latencyTimer("booking.latency.overall", window)
+                .description("Booking latency across all outcomes")
+                .register(registry));
+        }
+        this.latencyByDimension = new AtomicReferenceArray<>(
+            BookingOutcome.values().length * ROOM_TYPE_SLOTS * RETRY_BUCKETS * WINDOWS);
     }
 
     /**
@@ -74,6 +123,121 @@ public class BookingMetrics {
         sample.stop(bookingProcessingTime);
     }
 
+    /**
+     * Stops the booking timer and records the processing time under an execution mode.
+     * Returns the elapsed time in nanoseconds.
+     */
+    public long stopBookingTimer(Timer.Sample sample, ExecutionMode mode) {
+        long nanos = sample.stop(bookingProcessingTime);
+        processingTimeByMode.get(mode).record(nanos, TimeUnit.NANOSECONDS);
+        return nanos;
+    }
+
+    /**
+     * Records one booking's latency under its outcome, room type (null if untyped) and the
+     * number of retries it took, in every latency window.
+     */
+    public void recordBookingLatency(long nanos, BookingOutcome outcome, RoomType roomType, int retries) {
+        for (LatencyWindow window : LatencyWindow.values()) {
+            overallLatency.get(window).record(nanos, TimeUnit.NANOSECONDS);
+            latencyTimer(outcome, roomType, retries, window).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns a latency percentile in milliseconds across all bookings in the window,
+     * or 0 if the percentile is not one of LATENCY_PERCENTILES.
+     */
+    public double getLatencyPercentile(LatencyWindow window, double percentile) {
+        return percentile(overallLatency.get(window), percentile);
+    }
+
+    /**
+     * Returns a latency percentile in milliseconds for one combination of outcome, room type
+     * and retry count in the window, or 0 if no such booking was recorded.
+     */
+    public double getLatencyPercentile(LatencyWindow window, double percentile, BookingOutcome outcome,
+                                       RoomType roomType, int retries) {
+        Timer timer = latencyByDimension.get(latencyIndex(outcome, roomType, retries, window));
+        return timer == null ? 0.0 : percentile(timer, percentile);
+    }
+
+    /**
+     * Returns the number of bookings recorded with an outcome since start-up.
+     */
+    public long getBookingCount(BookingOutcome outcome) {
+        long count = 0;
+        for (Timer timer : registry.find("booking.latency")
+                .tags("outcome", outcome.name(), "window", LatencyWindow.ONE_MINUTE.tag()).timers()) {
+            count += timer.count();
+        }
+        return count;
+    }
+
+    private Timer latencyTimer(BookingOutcome outcome, RoomType roomType, int retries, LatencyWindow window) {
+        int index = latencyIndex(outcome, roomType, retries, window);
+        Timer timer = latencyByDimension.get(index);
+        if (timer == null) {
+            // Registering is idempotent, so racing threads end up with the same timer
+            int bucket = Math.min(Math.max(retries, 0), RETRY_BUCKETS - 1);
+            timer = latencyTimer("booking.latency", window)
+                .description("Booking latency by outcome, room type and retry count")
+                .tag("outcome", outcome.name())
+                .tag("roomType", roomType == null ? "NONE" : roomType.name())
+                .tag("retries", bucket == RETRY_BUCKETS - 1 ? bucket + "+" : String.valueOf(bucket))
+                .register(registry);
+            latencyByDimension.set(index, timer);
+        }
+        return timer;
+    }
+
+    private static Timer.Builder latencyTimer(String name, LatencyWindow window) {
+        return Timer.builder(name)
+            .tag("window", window.tag())
+            .publishPercentiles(LATENCY_PERCENTILES)
+            .percentilePrecision(2)
+            .distributionStatisticExpiry(window.duration())
+            .distributionStatisticBufferLength(5);
+    }
+
+    private static int latencyIndex(BookingOutcome outcome, RoomType roomType, int retries, LatencyWindow window) {
+        int roomTypeSlot = roomType == null ? ROOM_TYPE_SLOTS - 1 : roomType.ordinal();
+        int bucket = Math.min(Math.max(retries, 0), RETRY_BUCKETS - 1);
+        return ((outcome.ordinal() * ROOM_TYPE_SLOTS + roomTypeSlot) * RETRY_BUCKETS + bucket) * WINDOWS
+            + window.ordinal();
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Records how long an execution mode took to process a run of bookings.
+     */
+    public synchronized void recordExecutionRun(ExecutionMode mode, int bookings, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        throughputByMode.put(mode, seconds > 0 ? bookings / seconds : 0.0);
+    }
+
+    /**
+     * Returns the bookings per second of the last run in this mode, or 0 if it never ran.
+     */
+    public synchronized double getThroughput(ExecutionMode mode) {
+        return throughputByMode.getOrDefault(mode, 0.0);
+    }
+
+    /**
+     * Returns the 99th percentile processing time in milliseconds for an execution mode.
+     */
+    public double getP99ProcessingTime(ExecutionMode mode) {
+        return percentile(processingTimeByMode.get(mode), 0.99);
+    }
+
     /**
      * Returns the current booking success rate.
      */
@@ -0,0 +1,32 @@
+package com.kayak.hotelsearch.metrics;
+
+import java.time.Duration;
+
+/**
+ * Sliding windows over which booking latency percentiles are reported.
+ * ONE_MINUTE: Percentiles over roughly the last minute
+ * FIVE_MINUTES: Percentiles over roughly the last five minutes
+ */
+public enum LatencyWindow {
+    ONE_MINUTE("1m", Duration.ofMinutes(1)),
+    FIVE_MINUTES("5m", Duration.ofMinutes(5));
+
+    private final String tag;
+    private final Duration duration;
+
+    LatencyWindow(String tag, Duration duration) {
+        this.tag = tag;
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the value of the window tag on latency timers.
+     */
+    public String tag() {
+        return tag;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+}
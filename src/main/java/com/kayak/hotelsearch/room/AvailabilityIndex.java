@@ -0,0 +1,97 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Secondary index of available rooms by RoomType, each type kept in price order.
+ * A room is indexed while it is flagged available and has inventory left. Callers report
+ * every booking or release through update(), so the index changes by one entry per mutation
+ * instead of being rebuilt, and a search is a range scan over one sorted set.
+ */
+public class AvailabilityIndex {
+    private static final Comparator<Room> BY_PRICE =
+        Comparator.comparingDouble(Room::getPrice).thenComparingInt(Room::getRoomNumber);
+
+    private final Map<RoomType, NavigableSet<Room>> byType = new EnumMap<>(RoomType.class);
+
+    public AvailabilityIndex() {
+        for (RoomType roomType : RoomType.values()) {
+            byType.put(roomType, new ConcurrentSkipListSet<>(BY_PRICE));
+        }
+    }
+
+    /**
+     * Adds or removes a room to match its current availability.
+     * Rooms without a RoomType are not indexed.
+     */
+    public void update(Room room) {
+        if (room.getRoomType() == null) {
+            return;
+        }
+        NavigableSet<Room> rooms = byType.get(room.getRoomType());
+        // Updates for one room are serialized and re-read its state, so the last update after
+        // a burst of concurrent bookings and releases always leaves the index correct
+        synchronized (room) {
+            if (room.isAvailable() && room.getAvailableRooms() > 0) {
+                rooms.add(room);
+            } else {
+                rooms.remove(room);
+            }
+        }
+    }
+
+    /**
+     * Removes a room regardless of its state, for rooms leaving the table.
+     */
+    public void remove(Room room) {
+        if (room.getRoomType() != null) {
+            byType.get(room.getRoomType()).remove(room);
+        }
+    }
+
+    /**
+     * Returns available rooms of a type priced from minPrice to maxPrice inclusive, cheapest
+     * first (ties by room number), skipping the first offset matches and returning at most limit.
+     *
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    public List<Room> search(RoomType roomType, double minPrice, double maxPrice, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        List<Room> page = new ArrayList<>(Math.min(limit, 64));
+        if (minPrice > maxPrice || limit == 0) {
+            return page;
+        }
+        // Bounds sort before and after every real room at the same price
+        Room from = new Room(Integer.MIN_VALUE, roomType, minPrice, false);
+        Room to = new Room(Integer.MAX_VALUE, roomType, maxPrice, false);
+        int skipped = 0;
+        for (Room room : byType.get(roomType).subSet(from, true, to, true)) {
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            page.add(room);
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns the number of available rooms of a type.
+     * Counts every entry, so it is linear in the number of available rooms of that type.
+     */
+    public int count(RoomType roomType) {
+        return byType.get(roomType).size();
+    }
+}
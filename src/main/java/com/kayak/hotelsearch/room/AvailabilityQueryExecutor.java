@@ -0,0 +1,182 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Runs full-inventory availability searches in parallel on a dedicated ForkJoinPool.
+ *
+ * A search splits the room table's spliterator into slot ranges, by default about a quarter
+ * of the table's share per worker (as the JDK's parallel streams do), filters each range with the RoomQuery on whichever worker picks it up, and keeps only the
+ * limit cheapest matches of each range in a bounded heap. Heaps are merged as the ranges are
+ * joined, so memory is O(limit) per range and nothing is copied up front; latency falls with
+ * the pool's parallelism.
+ *
+ * The pool is separate from the common pool and from the booking threads, so a burst of
+ * large searches cannot delay bookings, and it is sized independently of them.
+ */
+public class AvailabilityQueryExecutor implements AutoCloseable {
+    // Leaves per worker when the leaf size is derived from the table
+    private static final int LEAVES_PER_WORKER = 4;
+    private static final Comparator<Candidate> CHEAPEST_FIRST =
+        Comparator.comparingDouble((Candidate candidate) -> candidate.price)
+            .thenComparingInt(candidate -> candidate.room.getRoomNumber());
+
+    private final ForkJoinPool pool;
+    // 0 derives it from each table's size
+    private final int leafSize;
+
+    public AvailabilityQueryExecutor(int parallelism) {
+        this(parallelism, 0);
+    }
+
+    /**
+     * Uses a fixed leaf size, or derives one from each table when leafSize is 0.
+     *
+     * @throws IllegalArgumentException if parallelism is not positive or leafSize is negative
+     */
+    AvailabilityQueryExecutor(int parallelism, int leafSize) {
+        if (parallelism <= 0 || leafSize < 0) {
+            throw new IllegalArgumentException("Parallelism must be positive and leaf size not negative");
+        }
+        this.leafSize = leafSize;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("availability-query-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Returns up to limit rooms matching the query, cheapest first (ties by room number).
+     * Prices are read once per room, so a price changing mid-search cannot reorder the result.
+     *
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public List<Room> findCheapest(RoomTable rooms, RoomQuery query, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        Spliterator<Room> all = rooms.spliterator();
+        int leaf = leafSize > 0 ? leafSize : leafSizeFor(all.estimateSize(), pool.getParallelism());
+        TopK cheapest = pool.invoke(new ScanTask(all, query, limit, leaf));
+        return cheapest.toSortedList();
+    }
+
+    /**
+     * Splits a table of the given size into about LEAVES_PER_WORKER ranges per worker, so
+     * every worker gets work and a slow range can be balanced by stealing the others.
+     */
+    static int leafSizeFor(long tableSize, int parallelism) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, tableSize / ((long) parallelism * LEAVES_PER_WORKER)));
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Lets running searches finish and stops the pool's threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @SuppressWarnings("serial")
+    private final class ScanTask extends RecursiveTask<TopK> {
+        private final Spliterator<Room> rooms;
+        private final RoomQuery query;
+        private final int limit;
+        private final int leafSize;
+
+        ScanTask(Spliterator<Room> rooms, RoomQuery query, int limit, int leafSize) {
+            this.rooms = rooms;
+            this.query = query;
+            this.limit = limit;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected TopK compute() {
+            // Fork off the first half until the rest is a leaf, then scan the rest here
+            List<ScanTask> forked = new ArrayList<>();
+            Spliterator<Room> prefix;
+            while (rooms.estimateSize() > leafSize && (prefix = rooms.trySplit()) != null) {
+                ScanTask task = new ScanTask(prefix, query, limit, leafSize);
+                task.fork();
+                forked.add(task);
+            }
+            TopK cheapest = new TopK(limit);
+            rooms.forEachRemaining(room -> {
+                if (query.matches(room)) {
+                    cheapest.offer(new Candidate(room, room.getPrice()));
+                }
+            });
+            // Join the most recently forked first: it is the likeliest to still be on our own deque
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                cheapest.merge(forked.get(i).join());
+            }
+            return cheapest;
+        }
+    }
+
+    private static final class Candidate {
+        final Room room;
+        final double price;
+
+        Candidate(Room room, double price) {
+            this.room = room;
+            this.price = price;
+        }
+    }
+
+    /**
+     * The limit cheapest candidates seen so far, in a max-heap so the one to evict is on top.
+     */
+    private static final class TopK {
+        private final int limit;
+        private final PriorityQueue<Candidate> heap;
+
+        TopK(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 64), CHEAPEST_FIRST.reversed());
+        }
+
+        void offer(Candidate candidate) {
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (CHEAPEST_FIRST.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        void merge(TopK other) {
+            for (Candidate candidate : other.heap) {
+                offer(candidate);
+            }
+        }
+
+        List<Room> toSortedList() {
+            List<Candidate> sorted = new ArrayList<>(heap);
+            sorted.sort(CHEAPEST_FIRST);
+            List<Room> rooms = new ArrayList<>(sorted.size());
+            for (Candidate candidate : sorted) {
+                rooms.add(candidate.room);
+            }
+            return rooms;
+        }
+    }
+}
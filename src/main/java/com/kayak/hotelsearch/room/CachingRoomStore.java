@@ -0,0 +1,203 @@
+package com.kayak.hotelsearch.room;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Read-through, write-through cache in front of a slower RoomStore.
+ *
+ * Eviction follows W-TinyLFU: new rooms enter a small LRU window (1% of capacity), and a
+ * room pushed out of the window only displaces the main region's LRU victim if a frequency
+ * sketch says it has been asked for more often. One-off lookups therefore cannot flush the
+ * rooms that are hot.
+ *
+ * Hits are a lock-free map read; their bookkeeping is skipped when another thread holds the
+ * policy lock, which only makes the frequency estimate slightly less precise. Concurrent misses
+ * for the same room share a single load from the backing store.
+ */
+public class CachingRoomStore implements RoomStore {
+    private final RoomStore backing;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final Map<Integer, Room> cached = new ConcurrentHashMap<>();
+    private final Map<Integer, CompletableFuture<Room>> loading = new ConcurrentHashMap<>();
+
+    private final ReentrantLock policyLock = new ReentrantLock();
+    // Both in least-recently-used order, guarded by policyLock
+    private final LinkedHashMap<Integer, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Boolean> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTime;
+
+    public CachingRoomStore(RoomStore backing, int capacity) {
+        this(backing, capacity, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Creates a cache of at most capacity rooms, registering its metrics in the given registry.
+     *
+     * @throws IllegalArgumentException if capacity is below 2
+     */
+    public CachingRoomStore(RoomStore backing, int capacity, MeterRegistry registry) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.backing = backing;
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity;
+        this.sketch = new FrequencySketch(capacity);
+
+        this.hits = Counter.builder("room.cache.hits")
+            .description("Room lookups served from the cache")
+            .register(registry);
+        this.misses = Counter.builder("room.cache.misses")
+            .description("Room lookups that went to the backing store")
+            .register(registry);
+        this.loadTime = Timer.builder("room.cache.load.time")
+            .description("Time taken to load a room from the backing store")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    @Override
+    public Room load(int roomNumber) {
+        Room room = cached.get(roomNumber);
+        if (room != null) {
+            hits.increment();
+            if (policyLock.tryLock()) {
+                try {
+                    sketch.increment(roomNumber);
+                    // Touch whichever region holds it to refresh its LRU position
+                    if (window.get(roomNumber) == null) {
+                        main.get(roomNumber);
+                    }
+                } finally {
+                    policyLock.unlock();
+                }
+            }
+            return room;
+        }
+
+        misses.increment();
+        CompletableFuture<Room> load = new CompletableFuture<>();
+        CompletableFuture<Room> inFlight = loading.putIfAbsent(roomNumber, load);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            room = backing.load(roomNumber);
+            loadTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (room != null) {
+                admit(roomNumber, room);
+            }
+            load.complete(room);
+            return room;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(roomNumber, load);
+        }
+    }
+
+    /**
+     * Writes the room to the backing store first, then refreshes the cached copy if there is one.
+     */
+    @Override
+    public Room store(Room room) {
+        Room previous = backing.store(room);
+        cached.computeIfPresent(room.getRoomNumber(), (roomNumber, current) -> room);
+        return previous;
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        double total = hits.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0.0;
+    }
+
+    /**
+     * Returns the average backing-store load time in milliseconds.
+     */
+    public double getAverageLoadTime() {
+        return loadTime.mean(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the 99th percentile backing-store load time in milliseconds.
+     */
+    public double getP99LoadTime() {
+        for (ValueAtPercentile value : loadTime.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.99) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0.0;
+    }
+
+    public int size() {
+        return cached.size();
+    }
+
+    private void admit(int roomNumber, Room room) {
+        policyLock.lock();
+        try {
+            // A miss that raced with another load of the same room: it is already in a region
+            if (cached.containsKey(roomNumber)) {
+                return;
+            }
+            sketch.increment(roomNumber);
+            cached.put(roomNumber, room);
+            window.put(roomNumber, Boolean.TRUE);
+            if (window.size() <= windowCapacity) {
+                return;
+            }
+
+            int candidate = removeEldest(window);
+            if (main.size() < mainCapacity) {
+                main.put(candidate, Boolean.TRUE);
+                return;
+            }
+            int victim = main.keySet().iterator().next();
+            if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+                main.remove(victim);
+                cached.remove(victim);
+                main.put(candidate, Boolean.TRUE);
+            } else {
+                cached.remove(candidate);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private static int removeEldest(LinkedHashMap<Integer, Boolean> region) {
+        Iterator<Integer> eldest = region.keySet().iterator();
+        int key = eldest.next();
+        eldest.remove();
+        return key;
+    }
+}
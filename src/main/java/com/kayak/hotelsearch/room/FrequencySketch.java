@@ -0,0 +1,65 @@
+package com.kayak.hotelsearch.room;
+
+/**
+ * Count-min sketch of approximate access counts, used by CachingRoomStore to decide which
+ * rooms are worth keeping. Counters saturate at 15, and all of them are halved once the
+ * number of recorded accesses reaches ten times the cache size, so old popularity fades.
+ * Not thread-safe; callers synchronize.
+ */
+final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final byte[] counters;
+    private final int mask;
+    private final int resetThreshold;
+    private int additions;
+
+    FrequencySketch(int cacheCapacity) {
+        int width = Integer.highestOneBit(Math.max(16, cacheCapacity * 4) - 1) << 1;
+        this.counters = new byte[width * DEPTH];
+        this.mask = width - 1;
+        this.resetThreshold = Math.max(16, cacheCapacity * 10);
+    }
+
+    void increment(int key) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(key, row);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= resetThreshold) {
+            halve();
+        }
+    }
+
+    int frequency(int key) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[indexOf(key, row)]);
+        }
+        return frequency;
+    }
+
+    private void halve() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int key, int row) {
+        // Murmur3 finalizer over a per-row seed, so the rows collide independently
+        int hash = key ^ SEEDS[row];
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return row * (mask + 1) + (hash & mask);
+    }
+}
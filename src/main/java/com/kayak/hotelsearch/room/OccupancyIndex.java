@@ -0,0 +1,268 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Night-by-night index of which rooms are fully booked, for finding every room free for a
+ * whole stay without visiting each room's calendar.
+ *
+ * For each night that has any fully booked room, the index keeps a compressed bitmap of those
+ * room numbers; alongside it are a bitmap of all rooms and one per RoomType. A search for
+ * [checkIn, checkOut) copies the type's bitmap and subtracts the bitmap of each night in the
+ * stay, so its cost depends on the number of nights and the density of the bitmaps, not on
+ * how many calendars there are. A 14-night search over 100,000 single-unit rooms touches a few
+ * hundred kilobytes of words.
+ *
+ * For a single-unit room, being free on every night means being free for the whole stay, so
+ * the bitmaps alone are exact. A room with several units can have a different unit free on
+ * each night, so the rooms left after subtracting are intersected with a bitmap of multi-unit
+ * rooms, and only those are checked against their calendar before being returned. Multi-unit
+ * rooms are rarely full on any one night, so for them the search is closer to a calendar scan
+ * limited to the requested type.
+ *
+ * Nights live in a ring of slots indexed by the night's epoch day, each slot with its own lock,
+ * so bookings of different nights never contend and a lookup never boxes the night. Callers
+ * report every change to a room's stays through update(). The nights it covers are recomputed
+ * from the calendar while holding the calendar's lock, so whichever update runs last leaves the
+ * bitmaps matching the calendar, however bookings and releases interleave. A search reads each
+ * night under that night's lock only, so it is not atomic across nights when bookings race it.
+ */
+public class OccupancyIndex {
+    private static final int NIGHT_SLOTS = 1024;
+
+    private final NightSlot[] nights = new NightSlot[NIGHT_SLOTS];
+
+    // Guards the room sets, which change only when rooms are added or cleared
+    private final ReadWriteLock roomsLock = new ReentrantReadWriteLock();
+    private RoomBitmap allRooms = new RoomBitmap();
+    private final Map<RoomType, RoomBitmap> byType = new EnumMap<>(RoomType.class);
+    private RoomBitmap multiUnit = new RoomBitmap();
+    private final RoomTable multiUnitRooms = new RoomTable();
+
+    public OccupancyIndex() {
+        for (int i = 0; i < NIGHT_SLOTS; i++) {
+            nights[i] = new NightSlot();
+        }
+        for (RoomType roomType : RoomType.values()) {
+            byType.put(roomType, new RoomBitmap());
+        }
+    }
+
+    /**
+     * Indexes a room and any stays already in its calendar, replacing a room with the same number.
+     *
+     * @throws IllegalArgumentException if the room number is negative
+     */
+    public void addRoom(Room room) {
+        int roomNumber = room.getRoomNumber();
+        if (roomNumber < 0) {
+            throw new IllegalArgumentException("Room number cannot be negative");
+        }
+        roomsLock.writeLock().lock();
+        try {
+            removeRoom(roomNumber);
+            allRooms.add(roomNumber);
+            if (room.getRoomType() != null) {
+                byType.get(room.getRoomType()).add(roomNumber);
+            }
+            if (room.getCalendar().getUnitCount() > 1) {
+                multiUnit.add(roomNumber);
+                multiUnitRooms.put(room);
+            }
+        } finally {
+            roomsLock.writeLock().unlock();
+        }
+        int[] stays = room.getCalendar().stays();
+        for (int i = 0; i < stays.length; i += 3) {
+            update(room, stays[i + 1], stays[i + 2]);
+        }
+    }
+
+    /**
+     * Re-reads the nights from checkInDay up to (but excluding) checkOutDay from the room's
+     * calendar. Call after any booking, release, hold or cancellation of a stay in that range.
+     */
+    public void update(Room room, long checkInDay, long checkOutDay) {
+        StayCalendar calendar = room.getCalendar();
+        int roomNumber = room.getRoomNumber();
+        synchronized (calendar) {
+            for (long night = checkInDay; night < checkOutDay; night++) {
+                boolean free = calendar.isAvailable(night, night + 1);
+                NightSlot slot = slotOf(night);
+                synchronized (slot) {
+                    if (free) {
+                        slot.remove(night, roomNumber);
+                    } else {
+                        slot.add(night, roomNumber);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns, in ascending order, the number of every room with a unit free for the whole
+     * stay from checkInDay up to (but excluding) checkOutDay. A null roomType matches every
+     * room, including rooms without a type.
+     *
+     * @throws IllegalArgumentException if checkInDay is not before checkOutDay
+     */
+    public int[] findAvailable(long checkInDay, long checkOutDay, RoomType roomType) {
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+        RoomBitmap free;
+        RoomBitmap multiUnitRoomsToCheck;
+        roomsLock.readLock().lock();
+        try {
+            free = (roomType == null ? allRooms : byType.get(roomType)).copy();
+            for (long night = checkInDay; night < checkOutDay && !free.isEmpty(); night++) {
+                NightSlot slot = slotOf(night);
+                synchronized (slot) {
+                    RoomBitmap full = slot.get(night);
+                    if (full != null) {
+                        free.andNot(full);
+                    }
+                }
+            }
+            multiUnitRoomsToCheck = free.and(multiUnit);
+        } finally {
+            roomsLock.readLock().unlock();
+        }
+        if (multiUnitRoomsToCheck.isEmpty()) {
+            return free.toArray();
+        }
+        // Calendars are locked before the night slots in update(), so check them after unlocking
+        for (int roomNumber : multiUnitRoomsToCheck.toArray()) {
+            Room room = multiUnitRooms.get(roomNumber);
+            if (room != null && !room.getCalendar().isAvailable(checkInDay, checkOutDay)) {
+                free.remove(roomNumber);
+            }
+        }
+        return free.toArray();
+    }
+
+    /**
+     * Returns the number of nights with at least one fully booked room.
+     */
+    public int getIndexedNightCount() {
+        int count = 0;
+        for (NightSlot slot : nights) {
+            synchronized (slot) {
+                count += slot.count;
+            }
+        }
+        return count;
+    }
+
+    public void clear() {
+        roomsLock.writeLock().lock();
+        try {
+            for (NightSlot slot : nights) {
+                synchronized (slot) {
+                    slot.clear();
+                }
+            }
+            allRooms = new RoomBitmap();
+            for (RoomType roomType : RoomType.values()) {
+                byType.put(roomType, new RoomBitmap());
+            }
+            multiUnit = new RoomBitmap();
+            multiUnitRooms.clear();
+        } finally {
+            roomsLock.writeLock().unlock();
+        }
+    }
+
+    private void removeRoom(int roomNumber) {
+        if (!allRooms.contains(roomNumber)) {
+            return;
+        }
+        allRooms.remove(roomNumber);
+        for (RoomBitmap rooms : byType.values()) {
+            rooms.remove(roomNumber);
+        }
+        multiUnit.remove(roomNumber);
+        multiUnitRooms.remove(roomNumber);
+        for (NightSlot slot : nights) {
+            synchronized (slot) {
+                slot.removeEverywhere(roomNumber);
+            }
+        }
+    }
+
+    private NightSlot slotOf(long night) {
+        return nights[(int) Math.floorMod(night, (long) NIGHT_SLOTS)];
+    }
+
+    /**
+     * The fully booked rooms of the nights that share one ring slot, keyed by the night itself.
+     * Nights NIGHT_SLOTS apart share a slot, so there is usually at most one entry. Guarded by
+     * the slot's own monitor.
+     */
+    private static final class NightSlot {
+        private long[] keys = new long[1];
+        private RoomBitmap[] full = new RoomBitmap[1];
+        private int count;
+
+        RoomBitmap get(long night) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == night) {
+                    return full[i];
+                }
+            }
+            return null;
+        }
+
+        void add(long night, int roomNumber) {
+            RoomBitmap rooms = get(night);
+            if (rooms == null) {
+                if (count == keys.length) {
+                    keys = Arrays.copyOf(keys, count * 2);
+                    full = Arrays.copyOf(full, count * 2);
+                }
+                keys[count] = night;
+                rooms = full[count++] = new RoomBitmap();
+            }
+            rooms.add(roomNumber);
+        }
+
+        void remove(long night, int roomNumber) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] == night) {
+                    full[i].remove(roomNumber);
+                    if (full[i].isEmpty()) {
+                        removeAt(i);
+                    }
+                    return;
+                }
+            }
+        }
+
+        void removeEverywhere(int roomNumber) {
+            for (int i = count - 1; i >= 0; i--) {
+                full[i].remove(roomNumber);
+                if (full[i].isEmpty()) {
+                    removeAt(i);
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(full, 0, count, null);
+            count = 0;
+        }
+
+        private void removeAt(int index) {
+            count--;
+            keys[index] = keys[count];
+            full[index] = full[count];
+            full[count] = null;
+        }
+    }
+}
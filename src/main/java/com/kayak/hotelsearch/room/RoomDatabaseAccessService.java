@@ -1,21 +1,41 @@
 package com.kayak.hotelsearch.room;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.List;
 import com.kayak.hotelsearch.Room;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
 public class RoomDatabaseAccessService {
     private static RoomDatabaseAccessService instance;
 
-    // Pretend this is a database
-    private static Map<Integer, Room> roomCache = new HashMap<>();
+    private static final Duration DATABASE_LATENCY = Duration.ofMillis(1);
+    private static final int CACHE_CAPACITY = 10_000;
 
-    private RoomDatabaseAccessService() {
-        // private constructor to prevent instantiation
+    // Pretend this is a database, with a read-through, write-through cache in front of it
+    private static final SimulatedRoomStore database = new SimulatedRoomStore(DATABASE_LATENCY);
+    private static final AvailabilityIndex availability = new AvailabilityIndex();
+
+    private final CachingRoomStore roomStore;
+
+    private RoomDatabaseAccessService(MeterRegistry registry) {
+        this.roomStore = new CachingRoomStore(database, CACHE_CAPACITY, registry);
     }
+
+    /**
+     * Returns the shared instance, publishing its cache metrics to Micrometer's global registry.
+     */
     public static RoomDatabaseAccessService getInstance() {
+        return getInstance(Metrics.globalRegistry);
+    }
+
+    /**
+     * Returns the shared instance, creating it with its cache metrics in the given registry.
+     * The registry is ignored once the instance exists.
+     */
+    public static RoomDatabaseAccessService getInstance(MeterRegistry registry) {
         if (instance == null) {
-            instance = new RoomDatabaseAccessService();
+            instance = new RoomDatabaseAccessService(registry);
             System.out.println("RoomDatabaseAccessService instance = " + instance);
             instance.initializeRooms();
         }
@@ -32,30 +52,86 @@ public class RoomDatabaseAccessService {
             Room room6 = new Room(106, RoomType.STANDARD, 200.0, true);
             Room room7 = new Room(107, RoomType.SUITE, 600.0, false);
 
-            roomCache.put(room1.getRoomNumber(), room1);
-            roomCache.put(room2.getRoomNumber(), room2);
-            roomCache.put(room3.getRoomNumber(), room3);
-            roomCache.put(room4.getRoomNumber(), room4);
-            roomCache.put(room5.getRoomNumber(), room5);
-            roomCache.put(room6.getRoomNumber(), room6);
-            roomCache.put(room7.getRoomNumber(), room7);
+            addRoom(room1);
+            addRoom(room2);
+            addRoom(room3);
+            addRoom(room4);
+            addRoom(room5);
+            addRoom(room6);
+            addRoom(room7);
 
     }
 
+    /**
+     * Adds a room, replacing any room with the same number, and indexes its availability.
+     */
+    public void addRoom(Room room) {
+        Room previous = roomStore.store(room);
+        if (previous != null) {
+            availability.remove(previous);
+        }
+        availability.update(room);
+    }
+
+    /**
+     * Returns the room with this number, from the cache when possible.
+     * Returns null if the room doesn't exist.
+     */
     public Room loadRoom(int roomNumber) {
-        // Simulate a database access
-        System.out.println("Loading room " + roomNumber + " from database");
-        Room room = roomCache.get(roomNumber);
-        return room;
+        return roomStore.load(roomNumber);
     }
 
     public boolean bookRoom(int roomNumber) {
-        Room room = roomCache.get(roomNumber);
-        if (room != null) {
-            synchronized (room) {
-                return room.bookRoom();
-            }
+        Room room = roomStore.load(roomNumber);
+        if (room == null || !room.bookRoom()) {
+            return false;
         }
-        return false;
+        roomStore.store(room);
+        availability.update(room);
+        return true;
+    }
+
+    /**
+     * Returns one unit of a room's inventory.
+     * Returns false if the room doesn't exist.
+     */
+    public boolean releaseRoom(int roomNumber) {
+        Room room = roomStore.load(roomNumber);
+        if (room == null) {
+            return false;
+        }
+        room.releaseRoom();
+        roomStore.store(room);
+        availability.update(room);
+        return true;
+    }
+
+    /**
+     * Returns the fraction of room lookups served from the cache, as counted by the registry.
+     */
+    public double getCacheHitRate() {
+        return roomStore.getHitRate();
+    }
+
+    /**
+     * Returns the average time in milliseconds a cache miss spent loading from the database.
+     */
+    public double getAverageLoadTime() {
+        return roomStore.getAverageLoadTime();
+    }
+
+    /**
+     * Returns available rooms of a type priced from minPrice to maxPrice, cheapest first.
+     * Skips the first offset matches and returns at most limit rooms.
+     */
+    public List<Room> findAvailableRooms(RoomType roomType, double minPrice, double maxPrice, int offset, int limit) {
+        return availability.search(roomType, minPrice, maxPrice, offset, limit);
+    }
+
+    /**
+     * Returns an immutable view of every room; cheap to call when nothing has changed.
+     */
+    public RoomStateSnapshot getRoomSnapshot() {
+        return database.snapshot();
     }
 }
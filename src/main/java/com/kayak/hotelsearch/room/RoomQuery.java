@@ -0,0 +1,101 @@
+package com.kayak.hotelsearch.room;
+
+import java.time.LocalDate;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Immutable filter for availability searches. Start from any() and narrow it with the
+ * with* methods, each of which returns a new query.
+ *
+ * Without stay dates a room matches while it is flagged available and has at least
+ * minUnits units of inventory left. With stay dates, its calendar must have a unit free for
+ * the whole stay and the room must have at least minUnits units.
+ */
+public final class RoomQuery {
+    private static final RoomQuery ANY = new RoomQuery(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1, 0, 0);
+
+    private final RoomType roomType;
+    private final double minPrice;
+    private final double maxPrice;
+    private final int minUnits;
+    private final long checkInDay;
+    private final long checkOutDay;
+
+    private RoomQuery(RoomType roomType, double minPrice, double maxPrice, int minUnits,
+                      long checkInDay, long checkOutDay) {
+        this.roomType = roomType;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minUnits = minUnits;
+        this.checkInDay = checkInDay;
+        this.checkOutDay = checkOutDay;
+    }
+
+    /**
+     * Matches every room with at least one unit left, at any price.
+     */
+    public static RoomQuery any() {
+        return ANY;
+    }
+
+    /**
+     * Only rooms of this type.
+     */
+    public RoomQuery withType(RoomType roomType) {
+        return new RoomQuery(roomType, minPrice, maxPrice, minUnits, checkInDay, checkOutDay);
+    }
+
+    /**
+     * Only rooms priced from minPrice to maxPrice inclusive.
+     *
+     * @throws IllegalArgumentException if minPrice is above maxPrice
+     */
+    public RoomQuery withPrice(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("Minimum price cannot be above maximum price");
+        }
+        return new RoomQuery(roomType, minPrice, maxPrice, minUnits, checkInDay, checkOutDay);
+    }
+
+    /**
+     * Only rooms with at least this many units.
+     *
+     * @throws IllegalArgumentException if minUnits is not positive
+     */
+    public RoomQuery withMinUnits(int minUnits) {
+        if (minUnits <= 0) {
+            throw new IllegalArgumentException("Minimum units must be positive");
+        }
+        return new RoomQuery(roomType, minPrice, maxPrice, minUnits, checkInDay, checkOutDay);
+    }
+
+    /**
+     * Only rooms with a unit free for the nights from checkIn up to (but excluding) checkOut.
+     *
+     * @throws IllegalArgumentException if checkIn is not before checkOut
+     */
+    public RoomQuery withStay(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkIn.isBefore(checkOut)) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+        return new RoomQuery(roomType, minPrice, maxPrice, minUnits, checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * Checks the cheap fields first, so the calendar is only consulted for rooms that pass them.
+     */
+    public boolean matches(Room room) {
+        if (roomType != null && room.getRoomType() != roomType) {
+            return false;
+        }
+        double price = room.getPrice();
+        if (price < minPrice || price > maxPrice) {
+            return false;
+        }
+        if (checkInDay == checkOutDay) {
+            return room.isAvailable() && room.getAvailableRooms() >= minUnits;
+        }
+        StayCalendar calendar = room.getCalendar();
+        return calendar.getUnitCount() >= minUnits && calendar.isAvailable(checkInDay, checkOutDay);
+    }
+}
@@ -0,0 +1,74 @@
+package com.kayak.hotelsearch.room;
+
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Immutable copy of one room's state, as published in a RoomStateSnapshot.
+ */
+public final class RoomState {
+    private final int roomNumber;
+    private final RoomType roomType;
+    private final double price;
+    private final String currentGuest;
+    private final int availableRooms;
+    private final boolean isAvailable;
+    private final int stayCount;
+
+    private RoomState(int roomNumber, RoomType roomType, double price, String currentGuest,
+                      int availableRooms, boolean isAvailable, int stayCount) {
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.price = price;
+        this.currentGuest = currentGuest;
+        this.availableRooms = availableRooms;
+        this.isAvailable = isAvailable;
+        this.stayCount = stayCount;
+    }
+
+    /**
+     * Copies a live room's current state.
+     */
+    public static RoomState of(Room room) {
+        return new RoomState(room.getRoomNumber(), room.getRoomType(), room.getPrice(), room.getCurrentGuest(),
+                room.getAvailableRooms(), room.isAvailable(), room.getCalendar().getStayCount());
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public String getCurrentGuest() {
+        return currentGuest;
+    }
+
+    public int getAvailableRooms() {
+        return availableRooms;
+    }
+
+    public boolean isAvailable() {
+        return isAvailable;
+    }
+
+    public int getStayCount() {
+        return stayCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RoomState{" +
+                "roomNumber=" + roomNumber +
+                ", isAvailable=" + isAvailable +
+                ", currentGuest='" + currentGuest + '\'' +
+                ", availableRooms=" + availableRooms +
+                ", stayCount=" + stayCount +
+                '}';
+    }
+}
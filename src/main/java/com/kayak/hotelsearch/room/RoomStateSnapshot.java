@@ -0,0 +1,112 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, versioned view of every room in a RoomTable.
+ * Rooms are grouped into fixed chunks of the table's dense range plus one chunk for rooms
+ * outside it. A new snapshot rebuilds only the chunks that changed and shares the rest with
+ * its predecessor, so publishing is proportional to what changed, not to the table size.
+ */
+public final class RoomStateSnapshot {
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int DENSE_CHUNKS =
+        (RoomTable.MAX_DENSE_ROOM - RoomTable.MIN_DENSE_ROOM + CHUNK_SIZE) >> CHUNK_SHIFT;
+    static final int SPARSE_CHUNK = DENSE_CHUNKS;
+
+    private static final RoomState[] EMPTY_CHUNK = new RoomState[0];
+
+    private final long version;
+    // Dense chunks are indexed by slot and may hold nulls; the sparse chunk is sorted by room number
+    private final RoomState[][] chunks;
+    private final int size;
+
+    RoomStateSnapshot(long version, RoomState[][] chunks, int size) {
+        this.version = version;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    static RoomStateSnapshot empty() {
+        RoomState[][] chunks = new RoomState[DENSE_CHUNKS + 1][];
+        Arrays.fill(chunks, EMPTY_CHUNK);
+        return new RoomStateSnapshot(0, chunks, 0);
+    }
+
+    /**
+     * Returns a snapshot with the given chunks replaced and every other chunk shared.
+     */
+    RoomStateSnapshot withChunks(long dirtyChunks, RoomState[][] rebuilt, int newSize) {
+        RoomState[][] next = chunks.clone();
+        for (int chunk = 0; chunk < next.length; chunk++) {
+            if ((dirtyChunks & (1L << chunk)) != 0) {
+                next[chunk] = rebuilt[chunk];
+            }
+        }
+        return new RoomStateSnapshot(version + 1, next, newSize);
+    }
+
+    /**
+     * Increases by one each time a changed snapshot is published.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the state of the room with this number, or null if there was none.
+     */
+    public RoomState get(int roomNumber) {
+        if (roomNumber >= RoomTable.MIN_DENSE_ROOM && roomNumber <= RoomTable.MAX_DENSE_ROOM) {
+            int slot = roomNumber - RoomTable.MIN_DENSE_ROOM;
+            RoomState[] chunk = chunks[slot >> CHUNK_SHIFT];
+            int index = slot & (CHUNK_SIZE - 1);
+            return index < chunk.length ? chunk[index] : null;
+        }
+        RoomState[] sparse = chunks[SPARSE_CHUNK];
+        int low = 0;
+        int high = sparse.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midNumber = sparse[mid].getRoomNumber();
+            if (midNumber < roomNumber) {
+                low = mid + 1;
+            } else if (midNumber > roomNumber) {
+                high = mid - 1;
+            } else {
+                return sparse[mid];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Visits every room, dense rooms first in room-number order.
+     */
+    public void forEach(Consumer<RoomState> action) {
+        for (RoomState[] chunk : chunks) {
+            for (RoomState state : chunk) {
+                if (state != null) {
+                    action.accept(state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns all rooms as a list.
+     */
+    public List<RoomState> values() {
+        List<RoomState> states = new ArrayList<>(size);
+        forEach(states::add);
+        return states;
+    }
+}
@@ -0,0 +1,20 @@
+package com.kayak.hotelsearch.room;
+
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Storage that rooms are loaded from and written back to.
+ */
+public interface RoomStore {
+
+    /**
+     * Returns the room with this number, or null if there is none.
+     */
+    Room load(int roomNumber);
+
+    /**
+     * Writes a room, replacing any room with the same number.
+     * Returns the replaced room, or null if there was none.
+     */
+    Room store(Room room);
+}
@@ -0,0 +1,382 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Room lookup table keyed by primitive room number.
+ * Room numbers 100-999 (the range BookingRequest accepts) map straight onto a dense array
+ * slot, so a lookup is a bounds check and one array read: no Integer boxing, no hashing.
+ * Other numbers fall back to an open-addressing table with int keys and linear probing.
+ *
+ * Reads are lock-free. Writes are rare (rooms are added at start-up) and synchronized;
+ * each slot is published with a volatile store so readers never see a half-written entry.
+ *
+ * snapshot() publishes an immutable RoomStateSnapshot. Callers that change a room report it
+ * through markChanged, which sets a bit for the room's chunk; the next snapshot rebuilds only
+ * the marked chunks, and a snapshot with nothing marked is returned as-is.
+ */
+public class RoomTable {
+    public static final int MIN_DENSE_ROOM = 100;
+    public static final int MAX_DENSE_ROOM = 999;
+
+    private static final int INITIAL_SPARSE_CAPACITY = 16;
+
+    private final AtomicReferenceArray<Room> dense;
+    private volatile SparseTable sparse;
+    private volatile int size;
+    private final AtomicLong dirtyChunks = new AtomicLong();
+    // Serializes snapshot rebuilds; writers use the table's own monitor
+    private final Object snapshotLock = new Object();
+    private volatile RoomStateSnapshot published = RoomStateSnapshot.empty();
+
+    public RoomTable() {
+        this.dense = new AtomicReferenceArray<>(MAX_DENSE_ROOM - MIN_DENSE_ROOM + 1);
+        this.sparse = new SparseTable(INITIAL_SPARSE_CAPACITY);
+    }
+
+    /**
+     * Returns the room with this number, or null if there is none.
+     */
+    public Room get(int roomNumber) {
+        if (isDense(roomNumber)) {
+            return dense.get(roomNumber - MIN_DENSE_ROOM);
+        }
+        return sparse.get(roomNumber);
+    }
+
+    /**
+     * Adds a room, replacing any room with the same number.
+     * Returns the replaced room, or null if there was none.
+     */
+    public synchronized Room put(Room room) {
+        int roomNumber = room.getRoomNumber();
+        Room previous;
+        if (isDense(roomNumber)) {
+            previous = dense.getAndSet(roomNumber - MIN_DENSE_ROOM, room);
+        } else {
+            if (sparse.needsResize()) {
+                sparse = sparse.resize();
+            }
+            previous = sparse.put(roomNumber, room);
+        }
+        if (previous == null) {
+            size++;
+        }
+        markChanged(roomNumber);
+        return previous;
+    }
+
+    /**
+     * Removes the room with this number.
+     * Returns the removed room, or null if there was none.
+     */
+    public synchronized Room remove(int roomNumber) {
+        Room previous;
+        if (isDense(roomNumber)) {
+            previous = dense.getAndSet(roomNumber - MIN_DENSE_ROOM, null);
+        } else {
+            previous = sparse.get(roomNumber);
+            if (previous != null) {
+                // Deleting from a linear-probing table breaks probe chains, so rebuild instead
+                sparse = sparse.without(roomNumber);
+            }
+        }
+        if (previous != null) {
+            size--;
+            markChanged(roomNumber);
+        }
+        return previous;
+    }
+
+    /**
+     * Removes all rooms.
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < dense.length(); i++) {
+            dense.set(i, null);
+        }
+        sparse = new SparseTable(INITIAL_SPARSE_CAPACITY);
+        size = 0;
+        dirtyChunks.set(-1L);
+    }
+
+    /**
+     * Records that a room's state changed, so the next snapshot picks it up.
+     * Allocation-free; once the chunk is marked this is a single read.
+     */
+    public void markChanged(int roomNumber) {
+        long bit = 1L << chunkOf(roomNumber);
+        if ((dirtyChunks.get() & bit) == 0) {
+            dirtyChunks.getAndAccumulate(bit, (current, mark) -> current | mark);
+        }
+    }
+
+    /**
+     * Returns the last published snapshot if no room has been marked since, otherwise null.
+     */
+    public RoomStateSnapshot currentSnapshot() {
+        return dirtyChunks.get() == 0 ? published : null;
+    }
+
+    /**
+     * Returns an immutable view of every room, rebuilding only chunks changed since the last one.
+     * Returns the previous snapshot unchanged when nothing was marked. The view is consistent
+     * across rooms only if the caller stops mutations while it is built.
+     */
+    public RoomStateSnapshot snapshot() {
+        if (dirtyChunks.get() == 0) {
+            return published;
+        }
+        synchronized (snapshotLock) {
+            long dirty = dirtyChunks.getAndSet(0);
+            if (dirty == 0) {
+                return published;
+            }
+            RoomState[][] rebuilt = new RoomState[RoomStateSnapshot.SPARSE_CHUNK + 1][];
+            for (int chunk = 0; chunk < RoomStateSnapshot.SPARSE_CHUNK; chunk++) {
+                if ((dirty & (1L << chunk)) != 0) {
+                    rebuilt[chunk] = buildDenseChunk(chunk);
+                }
+            }
+            if ((dirty & (1L << RoomStateSnapshot.SPARSE_CHUNK)) != 0) {
+                rebuilt[RoomStateSnapshot.SPARSE_CHUNK] = buildSparseChunk();
+            }
+            published = published.withChunks(dirty, rebuilt, size);
+            return published;
+        }
+    }
+
+    private RoomState[] buildDenseChunk(int chunk) {
+        int first = chunk << RoomStateSnapshot.CHUNK_SHIFT;
+        int length = Math.min(RoomStateSnapshot.CHUNK_SIZE, dense.length() - first);
+        RoomState[] states = new RoomState[length];
+        for (int i = 0; i < length; i++) {
+            Room room = dense.get(first + i);
+            states[i] = room == null ? null : RoomState.of(room);
+        }
+        return states;
+    }
+
+    private RoomState[] buildSparseChunk() {
+        List<RoomState> states = new ArrayList<>();
+        sparse.forEach(room -> states.add(RoomState.of(room)));
+        states.sort((a, b) -> Integer.compare(a.getRoomNumber(), b.getRoomNumber()));
+        return states.toArray(new RoomState[0]);
+    }
+
+    private static int chunkOf(int roomNumber) {
+        return isDense(roomNumber)
+            ? (roomNumber - MIN_DENSE_ROOM) >> RoomStateSnapshot.CHUNK_SHIFT
+            : RoomStateSnapshot.SPARSE_CHUNK;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every room, dense rooms first in room-number order.
+     */
+    public void forEach(Consumer<Room> action) {
+        for (int i = 0; i < dense.length(); i++) {
+            Room room = dense.get(i);
+            if (room != null) {
+                action.accept(room);
+            }
+        }
+        sparse.forEach(action);
+    }
+
+    /**
+     * Returns a spliterator over every room, read straight from the table without copying.
+     * It splits by slot range, so parallel scans divide the table evenly without counting
+     * rooms first. Rooms added or removed during the scan may or may not be seen.
+     */
+    public Spliterator<Room> spliterator() {
+        SparseTable sparseRooms = sparse;
+        return new RoomSpliterator(dense, sparseRooms, 0, dense.length() + sparseRooms.keys.length);
+    }
+
+    /**
+     * Returns all rooms as a list.
+     */
+    public List<Room> values() {
+        List<Room> rooms = new ArrayList<>(size);
+        forEach(rooms::add);
+        return rooms;
+    }
+
+    /**
+     * Copies all rooms into a map keyed by room number.
+     */
+    public Map<Integer, Room> toMap() {
+        Map<Integer, Room> rooms = new HashMap<>();
+        forEach(room -> rooms.put(room.getRoomNumber(), room));
+        return rooms;
+    }
+
+    /**
+     * Walks a range of slots: the dense array's, then the sparse table's.
+     */
+    private static final class RoomSpliterator implements Spliterator<Room> {
+        private final AtomicReferenceArray<Room> dense;
+        private final SparseTable sparse;
+        private int index;
+        private final int fence;
+
+        RoomSpliterator(AtomicReferenceArray<Room> dense, SparseTable sparse, int index, int fence) {
+            this.dense = dense;
+            this.sparse = sparse;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Room> action) {
+            while (index < fence) {
+                Room room = slot(index++);
+                if (room != null) {
+                    action.accept(room);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Room> action) {
+            for (; index < fence; index++) {
+                Room room = slot(index);
+                if (room != null) {
+                    action.accept(room);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<Room> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            Spliterator<Room> prefix = new RoomSpliterator(dense, sparse, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | CONCURRENT;
+        }
+
+        private Room slot(int slot) {
+            return slot < dense.length() ? dense.get(slot) : sparse.rooms.get(slot - dense.length());
+        }
+    }
+
+    private static boolean isDense(int roomNumber) {
+        return roomNumber >= MIN_DENSE_ROOM && roomNumber <= MAX_DENSE_ROOM;
+    }
+
+    /**
+     * Open-addressing table for room numbers outside the dense range.
+     * A slot is occupied once its room is non-null; the key is written before the room is
+     * published, so a reader that sees the room also sees the key.
+     */
+    private static final class SparseTable {
+        private final int[] keys;
+        private final AtomicReferenceArray<Room> rooms;
+        private final int mask;
+        private int count;
+
+        SparseTable(int capacity) {
+            this.keys = new int[capacity];
+            this.rooms = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        Room get(int roomNumber) {
+            int slot = indexFor(roomNumber);
+            while (true) {
+                Room room = rooms.get(slot);
+                if (room == null) {
+                    return null;
+                }
+                if (keys[slot] == roomNumber) {
+                    return room;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        Room put(int roomNumber, Room room) {
+            int slot = indexFor(roomNumber);
+            while (true) {
+                Room existing = rooms.get(slot);
+                if (existing == null) {
+                    keys[slot] = roomNumber;
+                    rooms.set(slot, room);
+                    count++;
+                    return null;
+                }
+                if (keys[slot] == roomNumber) {
+                    return rooms.getAndSet(slot, room);
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        boolean needsResize() {
+            // Keep the load factor at or below one half so probe chains stay short
+            return (count + 1) * 2 > keys.length;
+        }
+
+        SparseTable resize() {
+            SparseTable larger = new SparseTable(keys.length * 2);
+            forEach(room -> larger.put(room.getRoomNumber(), room));
+            return larger;
+        }
+
+        SparseTable without(int roomNumber) {
+            SparseTable copy = new SparseTable(keys.length);
+            forEach(room -> {
+                if (room.getRoomNumber() != roomNumber) {
+                    copy.put(room.getRoomNumber(), room);
+                }
+            });
+            return copy;
+        }
+
+        void forEach(Consumer<Room> action) {
+            for (int i = 0; i < keys.length; i++) {
+                Room room = rooms.get(i);
+                if (room != null) {
+                    action.accept(room);
+                }
+            }
+        }
+
+        private int indexFor(int roomNumber) {
+            // Fibonacci hashing spreads clustered room numbers across the table
+            int hash = roomNumber * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.kayak.hotelsearch.room;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import com.kayak.hotelsearch.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stand-in for a room database: rooms live in a RoomTable, but every load and store waits
+ * for a fixed latency first, the way a network round trip would.
+ */
+public class SimulatedRoomStore implements RoomStore {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedRoomStore.class);
+
+    private final RoomTable table = new RoomTable();
+    private final long latencyNanos;
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    public SimulatedRoomStore(Duration latency) {
+        this.latencyNanos = latency.toNanos();
+    }
+
+    @Override
+    public Room load(int roomNumber) {
+        simulateLatency();
+        loads.incrementAndGet();
+        logger.debug("Loading room {} from database", roomNumber);
+        return table.get(roomNumber);
+    }
+
+    @Override
+    public Room store(Room room) {
+        simulateLatency();
+        stores.incrementAndGet();
+        return table.put(room);
+    }
+
+    /**
+     * Returns an immutable view of every stored room.
+     */
+    public RoomStateSnapshot snapshot() {
+        return table.snapshot();
+    }
+
+    /**
+     * Returns how many loads reached the store.
+     */
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    /**
+     * Returns how many stores reached the store.
+     */
+    public long getStoreCount() {
+        return stores.get();
+    }
+
+    private void simulateLatency() {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-room index of booked stays.
+ * Keeps one sorted interval map per physical unit of the room, keyed by check-in epoch day.
+ * Stays are half-open [checkIn, checkOut) ranges, so a guest checking out on the same day
+ * another guest checks in does not conflict.
+ *
+ * Stays booked into the same unit never overlap, which means an overlap check only has to
+ * look at the nearest stay on either side of the requested check-in: O(log n) per unit.
+ * Unit maps are created on first use, so rooms with large inventories stay cheap.
+ *
+ * A stay can also be held: it blocks its unit like any other stay until it is confirmed or
+ * cancelled, but it is left out of stays() so snapshots never persist an unconfirmed hold.
+ */
+public class StayCalendar {
+    private final int unitCount;
+    private final List<TreeMap<Long, Long>> units;
+    // Held stays, keyed by unit and check-in day; created on the first hold
+    private Set<Long> held;
+    private int stayCount;
+
+    /**
+     * Creates an empty calendar for a room with the given number of units.
+     */
+    public StayCalendar(int unitCount) {
+        if (unitCount < 0) {
+            throw new IllegalArgumentException("Unit count cannot be negative");
+        }
+        this.unitCount = unitCount;
+        this.units = new ArrayList<>();
+    }
+
+    /**
+     * Books the first unit that is free for the whole stay.
+     * Returns the unit index, or -1 if every unit has an overlapping stay.
+     */
+    public synchronized int book(long checkInDay, long checkOutDay) {
+        validateRange(checkInDay, checkOutDay);
+        for (int unit = 0; unit < units.size(); unit++) {
+            TreeMap<Long, Long> stays = units.get(unit);
+            if (isFree(stays, checkInDay, checkOutDay)) {
+                stays.put(checkInDay, checkOutDay);
+                stayCount++;
+                return unit;
+            }
+        }
+        if (units.size() < unitCount) {
+            TreeMap<Long, Long> stays = new TreeMap<>();
+            stays.put(checkInDay, checkOutDay);
+            units.add(stays);
+            stayCount++;
+            return units.size() - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes a previously booked stay with exactly these dates.
+     * Returns true if a matching stay was found.
+     */
+    public synchronized boolean release(long checkInDay, long checkOutDay) {
+        for (int unit = 0; unit < units.size(); unit++) {
+            if (!isHeld(unit, checkInDay) && units.get(unit).remove(checkInDay, checkOutDay)) {
+                stayCount--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Books the first free unit as a tentative hold.
+     * Returns the unit index, or -1 if every unit has an overlapping stay.
+     */
+    public synchronized int hold(long checkInDay, long checkOutDay) {
+        int unit = book(checkInDay, checkOutDay);
+        if (unit >= 0) {
+            if (held == null) {
+                held = new HashSet<>();
+            }
+            held.add(holdKey(unit, checkInDay));
+        }
+        return unit;
+    }
+
+    /**
+     * Turns a hold into a regular stay. Returns false if there was no such hold.
+     */
+    public synchronized boolean confirmHold(int unit, long checkInDay) {
+        return held != null && held.remove(holdKey(unit, checkInDay));
+    }
+
+    /**
+     * Removes a hold and frees its unit. Returns false if there was no such hold.
+     */
+    public synchronized boolean cancelHold(int unit, long checkInDay) {
+        if (held == null || !held.remove(holdKey(unit, checkInDay))) {
+            return false;
+        }
+        units.get(unit).remove(checkInDay);
+        stayCount--;
+        return true;
+    }
+
+    /**
+     * Returns true if at least one unit is free for the whole stay.
+     */
+    public synchronized boolean isAvailable(long checkInDay, long checkOutDay) {
+        validateRange(checkInDay, checkOutDay);
+        // A unit that has never been booked is free for any stay
+        if (units.size() < unitCount) {
+            return true;
+        }
+        for (TreeMap<Long, Long> stays : units) {
+            if (isFree(stays, checkInDay, checkOutDay)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts a stay back into a specific unit, as recorded by stays().
+     * Used when loading a snapshot; performs no overlap check.
+     */
+    public synchronized void restore(int unit, long checkInDay, long checkOutDay) {
+        if (unit < 0 || unit >= unitCount) {
+            throw new IllegalArgumentException("Unit " + unit + " is out of range");
+        }
+        while (units.size() <= unit) {
+            units.add(new TreeMap<>());
+        }
+        if (units.get(unit).put(checkInDay, checkOutDay) == null) {
+            stayCount++;
+        }
+    }
+
+    /**
+     * Returns every stay as consecutive (unit, checkInDay, checkOutDay) triples.
+     */
+    public synchronized int[] stays() {
+        int[] stays = new int[(stayCount - getHoldCount()) * 3];
+        int i = 0;
+        for (int unit = 0; unit < units.size(); unit++) {
+            for (Map.Entry<Long, Long> stay : units.get(unit).entrySet()) {
+                if (isHeld(unit, stay.getKey())) {
+                    continue;
+                }
+                stays[i++] = unit;
+                stays[i++] = Math.toIntExact(stay.getKey());
+                stays[i++] = Math.toIntExact(stay.getValue());
+            }
+        }
+        return stays;
+    }
+
+    /**
+     * Returns the number of stays, holds included.
+     */
+    public synchronized int getStayCount() {
+        return stayCount;
+    }
+
+    public synchronized int getHoldCount() {
+        return held == null ? 0 : held.size();
+    }
+
+    private boolean isHeld(int unit, long checkInDay) {
+        return held != null && held.contains(holdKey(unit, checkInDay));
+    }
+
+    private static long holdKey(int unit, long checkInDay) {
+        return ((long) unit << 32) | (checkInDay & 0xFFFFFFFFL);
+    }
+
+    public int getUnitCount() {
+        return unitCount;
+    }
+
+    private static boolean isFree(TreeMap<Long, Long> stays, long checkInDay, long checkOutDay) {
+        // The stay starting on or before check-in must have ended by then
+        Map.Entry<Long, Long> before = stays.floorEntry(checkInDay);
+        if (before != null && before.getValue() > checkInDay) {
+            return false;
+        }
+        // The next stay must not start before check-out
+        Long after = stays.higherKey(checkInDay);
+        return after == null || after >= checkOutDay;
+    }
+
+    private static void validateRange(long checkInDay, long checkOutDay) {
+        if (checkInDay >= checkOutDay) {
+            throw new IllegalArgumentException("Check-in date must be before check-out date");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.kayak.hotelsearch.room;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+
+/**
+ * FIFO queue of requests waiting for a unit of one room's inventory.
+ * Each waiter is a future that is completed with BOOKED when a unit is handed to it. A waiter
+ * that times out or is cancelled is completed by its owner and skipped from then on.
+ */
+public class Waitlist {
+    private final ArrayDeque<CompletableFuture<BookingOutcome>> waiters = new ArrayDeque<>();
+    // Readable without the lock, so the release path can skip an empty waitlist cheaply
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Returns true if nobody is waiting. May briefly count waiters that have already given up.
+     */
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Adds a waiter at the tail.
+     */
+    public synchronized void enqueue(CompletableFuture<BookingOutcome> waiter) {
+        waiters.addLast(waiter);
+        size.incrementAndGet();
+    }
+
+    /**
+     * Removes a waiter that gave up. Returns false if it was no longer queued.
+     */
+    public synchronized boolean remove(CompletableFuture<BookingOutcome> waiter) {
+        if (waiters.remove(waiter)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Completes the oldest live waiter with BOOKED, giving it a unit the caller holds.
+     * Returns false if there was no live waiter, in which case the caller keeps the unit.
+     */
+    public synchronized boolean handOff() {
+        CompletableFuture<BookingOutcome> waiter;
+        while ((waiter = waiters.pollFirst()) != null) {
+            size.decrementAndGet();
+            if (waiter.complete(BookingOutcome.BOOKED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
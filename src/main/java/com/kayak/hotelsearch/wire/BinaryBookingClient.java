@@ -0,0 +1,193 @@
+package com.kayak.hotelsearch.wire;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+
+/**
+ * Blocking client for BinaryBookingServer.
+ * Commands are buffered until flush() (or until the buffer fills) and responses are read back in
+ * the same order. The server stops reading once the client stops reading, so while a flush is
+ * blocked the client keeps draining responses into memory; a caller can pipeline as many commands
+ * as it has heap for the responses. Not thread-safe.
+ */
+public class BinaryBookingClient implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final UUID NO_REQUEST_ID = new UUID(0, 0);
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final SelectionKey key;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    // Kept in read mode between calls
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+    // Responses that arrived while commands were still being written
+    private final Queue<Response> received = new ArrayDeque<>();
+
+    public BinaryBookingClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        channel.configureBlocking(false);
+        this.selector = Selector.open();
+        this.key = channel.register(selector, 0);
+    }
+
+    /**
+     * Queues a booking of one unit. A null request ID books without deduplication.
+     */
+    public void book(UUID requestId, int roomNumber) throws IOException {
+        send(WireProtocol.BOOK, requestId, roomNumber, null, null);
+    }
+
+    /**
+     * Queues a booking of a stay. A null request ID books without deduplication.
+     */
+    public void book(UUID requestId, int roomNumber, LocalDate checkIn, LocalDate checkOut) throws IOException {
+        send(WireProtocol.BOOK, requestId, roomNumber, checkIn, checkOut);
+    }
+
+    public void release(int roomNumber) throws IOException {
+        send(WireProtocol.RELEASE, null, roomNumber, null, null);
+    }
+
+    public void release(int roomNumber, LocalDate checkIn, LocalDate checkOut) throws IOException {
+        send(WireProtocol.RELEASE, null, roomNumber, checkIn, checkOut);
+    }
+
+    /**
+     * Queues a query for the room's units left, or with dates, whether the stay is free.
+     */
+    public void query(int roomNumber, LocalDate checkIn, LocalDate checkOut) throws IOException {
+        send(WireProtocol.QUERY, null, roomNumber, checkIn, checkOut);
+    }
+
+    /**
+     * Sends a raw frame, for callers that need to test the server's handling of bad input.
+     */
+    void sendRaw(ByteBuffer frame) throws IOException {
+        flush();
+        write(frame);
+    }
+
+    /**
+     * Sends every queued command.
+     */
+    public void flush() throws IOException {
+        out.flip();
+        write(out);
+        out.clear();
+    }
+
+    /**
+     * Blocks for the next response. Flushes queued commands first so it cannot wait forever.
+     *
+     * @throws EOFException if the server closed the connection
+     */
+    public Response readResponse() throws IOException {
+        flush();
+        while (received.isEmpty()) {
+            if (!receive()) {
+                await(SelectionKey.OP_READ);
+            }
+        }
+        return received.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (selector) {
+            channel.close();
+        }
+    }
+
+    private void send(byte opcode, UUID requestId, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws IOException {
+        if (out.remaining() < Integer.BYTES + WireProtocol.COMMAND_LENGTH) {
+            flush();
+        }
+        UUID id = requestId == null ? NO_REQUEST_ID : requestId;
+        WireProtocol.putCommand(out, opcode, id.getMostSignificantBits(), id.getLeastSignificantBits(), roomNumber,
+            checkIn == null ? WireProtocol.NO_DAY : (int) checkIn.toEpochDay(),
+            checkOut == null ? WireProtocol.NO_DAY : (int) checkOut.toEpochDay());
+    }
+
+    /**
+     * Writes the whole buffer, reading responses whenever the socket will not take more so the
+     * server is never left blocked on a client that is blocked on it.
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0 && !receive()) {
+                await(SelectionKey.OP_WRITE | SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * Reads whatever has arrived and decodes every complete response. Returns false if nothing
+     * was available.
+     *
+     * @throws EOFException if the server closed the connection
+     */
+    private boolean receive() throws IOException {
+        in.compact();
+        int read = channel.read(in);
+        in.flip();
+        if (read < 0) {
+            throw new EOFException("Server closed the connection");
+        }
+        while (in.remaining() >= Integer.BYTES) {
+            int length = in.getInt(in.position());
+            if (in.remaining() < Integer.BYTES + length) {
+                break;
+            }
+            int start = in.position() + Integer.BYTES;
+            received.add(new Response(new UUID(in.getLong(start), in.getLong(start + 8)),
+                in.get(start + 16), in.getInt(start + 17)));
+            in.position(start + length);
+        }
+        return read > 0;
+    }
+
+    private void await(int ops) throws IOException {
+        key.interestOps(ops);
+        selector.select();
+        selector.selectedKeys().clear();
+    }
+
+    /**
+     * A decoded response. Status is one of the WireProtocol status codes.
+     */
+    public static final class Response {
+        private final UUID requestId;
+        private final byte status;
+        private final int value;
+
+        Response(UUID requestId, byte status, int value) {
+            this.requestId = requestId;
+            this.status = status;
+            this.value = value;
+        }
+
+        public UUID getRequestId() {
+            return requestId;
+        }
+
+        public byte getStatus() {
+            return status;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+}
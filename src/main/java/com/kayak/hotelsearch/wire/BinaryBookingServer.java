@@ -0,0 +1,351 @@
+package com.kayak.hotelsearch.wire;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selector-based server for the WireProtocol binary booking commands.
+ *
+ * An acceptor thread hands each new connection to one of several reactor threads, each with
+ * its own Selector. A reactor reads whatever has arrived into the connection's direct buffer,
+ * executes every complete command in it, and writes all the responses with a single write,
+ * so a client pipelining hundreds of commands costs one read and one write per batch rather
+ * than per command. Commands are decoded with absolute reads straight from the buffer into
+ * the service call; nothing is allocated per command except the UUID of an idempotent
+ * booking and the dates of a dated one.
+ *
+ * When a client stops reading its responses, the reactor stops reading its commands until
+ * the backlog has been written, so a slow client cannot make the server buffer without bound.
+ * Commands run on the reactor thread, which suits the service's short, non-blocking calls.
+ */
+public class BinaryBookingServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BinaryBookingServer.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FRAME_HEADER = Integer.BYTES;
+
+    private final RoomDatabaseAccessService service;
+    private final ServerSocketChannel serverChannel;
+    private final Reactor[] reactors;
+    private final Thread acceptor;
+    private volatile boolean running = true;
+
+    public BinaryBookingServer(RoomDatabaseAccessService service, InetSocketAddress address) throws IOException {
+        this(service, address, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Binds to the address (port 0 picks a free port) without accepting connections yet.
+     *
+     * @throws IllegalArgumentException if reactorCount is not positive
+     */
+    public BinaryBookingServer(RoomDatabaseAccessService service, InetSocketAddress address,
+                               int reactorCount) throws IOException {
+        if (reactorCount <= 0) {
+            throw new IllegalArgumentException("Reactor count must be positive");
+        }
+        this.service = service;
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        this.reactors = new Reactor[reactorCount];
+        for (int i = 0; i < reactorCount; i++) {
+            reactors[i] = new Reactor(i);
+        }
+        this.acceptor = new Thread(this::acceptLoop, "wire-acceptor");
+        acceptor.setDaemon(true);
+    }
+
+    public void start() {
+        for (Reactor reactor : reactors) {
+            reactor.thread.start();
+        }
+        acceptor.start();
+        logger.info("Binary booking protocol listening on port {}", getPort());
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing server socket: {}", e.getMessage());
+        }
+        for (Reactor reactor : reactors) {
+            reactor.selector.wakeup();
+        }
+        try {
+            acceptor.join();
+            for (Reactor reactor : reactors) {
+                reactor.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                reactors[next].adopt(channel);
+                next = (next + 1) % reactors.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    logger.warn("Error accepting connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes the command frame whose body starts at offset and writes its response to out.
+     */
+    private void execute(ByteBuffer in, int offset, int length, ByteBuffer out) {
+        if (length < WireProtocol.COMMAND_LENGTH) {
+            WireProtocol.putResponse(out, 0, 0, WireProtocol.BAD_REQUEST, 0);
+            return;
+        }
+        byte opcode = in.get(offset);
+        long requestIdHigh = in.getLong(offset + 1);
+        long requestIdLow = in.getLong(offset + 9);
+        int roomNumber = in.getInt(offset + 17);
+        int checkInDay = in.getInt(offset + 21);
+        int checkOutDay = in.getInt(offset + 25);
+
+        byte status;
+        int value = 0;
+        try {
+            boolean dated = checkInDay != WireProtocol.NO_DAY || checkOutDay != WireProtocol.NO_DAY;
+            if (dated && (checkInDay == WireProtocol.NO_DAY || checkOutDay == WireProtocol.NO_DAY)) {
+                throw new IllegalArgumentException("Both stay dates are required");
+            }
+            LocalDate checkIn = dated ? LocalDate.ofEpochDay(checkInDay) : null;
+            LocalDate checkOut = dated ? LocalDate.ofEpochDay(checkOutDay) : null;
+            boolean idempotent = (requestIdHigh | requestIdLow) != 0;
+
+            switch (opcode) {
+                case WireProtocol.BOOK -> {
+                    BookingOutcome outcome;
+                    if (!dated) {
+                        outcome = idempotent
+                            ? service.bookRoom(new UUID(requestIdHigh, requestIdLow), roomNumber)
+                            : service.tryBookRoom(roomNumber);
+                    } else if (idempotent) {
+                        outcome = service.bookRoom(new UUID(requestIdHigh, requestIdLow), roomNumber, checkIn, checkOut);
+                    } else if (service.bookRoom(roomNumber, checkIn, checkOut)) {
+                        outcome = BookingOutcome.BOOKED;
+                    } else {
+                        outcome = service.getRoom(roomNumber) == null ? BookingOutcome.NOT_FOUND : BookingOutcome.SOLD_OUT;
+                    }
+                    status = statusOf(outcome);
+                }
+                case WireProtocol.RELEASE -> {
+                    if (service.getRoom(roomNumber) == null) {
+                        status = WireProtocol.NOT_FOUND;
+                    } else if (!dated) {
+                        service.releaseRoom(roomNumber);
+                        status = WireProtocol.OK;
+                    } else {
+                        status = service.releaseRoom(roomNumber, checkIn, checkOut) ? WireProtocol.OK : WireProtocol.REJECTED;
+                    }
+                }
+                case WireProtocol.QUERY -> {
+                    Room room = service.getRoom(roomNumber);
+                    if (room == null) {
+                        status = WireProtocol.NOT_FOUND;
+                    } else {
+                        status = WireProtocol.OK;
+                        value = dated ? (service.isAvailable(roomNumber, checkIn, checkOut) ? 1 : 0) : room.getAvailableRooms();
+                    }
+                }
+                default -> status = WireProtocol.BAD_REQUEST;
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            status = WireProtocol.BAD_REQUEST;
+        } catch (RuntimeException e) {
+            logger.error("Error executing command {} for room {}: {}", opcode, roomNumber, e.getMessage());
+            status = WireProtocol.ERROR;
+        }
+        WireProtocol.putResponse(out, requestIdHigh, requestIdLow, status, value);
+    }
+
+    private static byte statusOf(BookingOutcome outcome) {
+        return switch (outcome) {
+            case BOOKED -> WireProtocol.OK;
+            case SOLD_OUT -> WireProtocol.REJECTED;
+            case NOT_FOUND -> WireProtocol.NOT_FOUND;
+            case ERROR -> WireProtocol.ERROR;
+        };
+    }
+
+    /**
+     * One selector thread and the connections assigned to it.
+     */
+    private final class Reactor {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<SocketChannel> adopted = new ConcurrentLinkedQueue<>();
+
+        Reactor(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this::run, "wire-reactor-" + index);
+            thread.setDaemon(true);
+        }
+
+        void adopt(SocketChannel channel) {
+            adopted.add(channel);
+            selector.wakeup();
+        }
+
+        private void register(SocketChannel channel) {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key));
+            } catch (ClosedChannelException e) {
+                logger.debug("Connection closed before it was registered");
+            }
+        }
+
+        private void run() {
+            try (selector) {
+                while (running) {
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = adopted.poll()) != null) {
+                        register(channel);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ((Connection) key.attachment()).onReady();
+                    }
+                }
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close();
+                }
+            } catch (IOException e) {
+                logger.error("Reactor failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A client connection's buffers. Only ever touched by its reactor's thread.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        // Read mode only inside process(); otherwise both are in write (fill) mode
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void onReady() {
+            try {
+                if (key.isWritable()) {
+                    // Backlog drained: carry on with any commands left waiting in the input
+                    if (flush()) {
+                        process();
+                    }
+                } else if (key.isReadable()) {
+                    if (channel.read(in) < 0) {
+                        close();
+                        return;
+                    }
+                    process();
+                }
+            } catch (IOException e) {
+                logger.debug("Closing connection after I/O error: {}", e.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * Executes every complete command in the input, flushing responses whenever the output
+         * fills and once at the end. Stops early if the client is not reading.
+         */
+        private void process() throws IOException {
+            boolean outputFull;
+            do {
+                outputFull = false;
+                in.flip();
+                while (in.remaining() >= FRAME_HEADER) {
+                    int length = in.getInt(in.position());
+                    if (length < 0 || length > WireProtocol.MAX_FRAME_LENGTH) {
+                        logger.warn("Closing connection that sent a {}-byte frame", length);
+                        close();
+                        return;
+                    }
+                    if (in.remaining() < FRAME_HEADER + length) {
+                        break;
+                    }
+                    if (out.remaining() < FRAME_HEADER + WireProtocol.RESPONSE_LENGTH) {
+                        outputFull = true;
+                        break;
+                    }
+                    execute(in, in.position() + FRAME_HEADER, length, out);
+                    in.position(in.position() + FRAME_HEADER + length);
+                }
+                in.compact();
+                if (!flush()) {
+                    return;
+                }
+            } while (outputFull);
+        }
+
+        /**
+         * Writes pending responses. Returns false, and waits for the socket to become writable
+         * instead of reading more commands, if they did not all fit.
+         */
+        private boolean flush() throws IOException {
+            out.flip();
+            if (out.hasRemaining()) {
+                channel.write(out);
+            }
+            boolean drained = !out.hasRemaining();
+            out.compact();
+            key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_WRITE);
+            return drained;
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Error closing connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.kayak.hotelsearch.wire;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Length-prefixed binary booking protocol, big-endian throughout.
+ *
+ * Every frame starts with an int giving the length of the rest of the frame.
+ * A command is:
+ *   byte  opcode       BOOK, RELEASE or QUERY
+ *   long  requestId    most significant bits
+ *   long  requestId    least significant bits
+ *   int   roomNumber
+ *   int   checkInDay   epoch day, or NO_DAY for an undated command
+ *   int   checkOutDay  epoch day, or NO_DAY
+ * A response is:
+ *   long  requestId    most significant bits, echoed from the command
+ *   long  requestId    least significant bits
+ *   byte  status       OK, REJECTED, NOT_FOUND, BAD_REQUEST or ERROR
+ *   int   value        for QUERY, the units left (undated) or 1/0 for a free stay; otherwise 0
+ *
+ * Clients may send any number of commands without waiting; responses come back in command
+ * order on the same connection. A non-zero request ID makes a BOOK idempotent: a retry with
+ * the same ID gets the original outcome back. Longer frames are accepted and their extra
+ * bytes ignored, so fields can be appended later without breaking old servers.
+ */
+public final class WireProtocol {
+    public static final byte BOOK = 1;
+    public static final byte RELEASE = 2;
+    public static final byte QUERY = 3;
+
+    public static final byte OK = 0;
+    public static final byte REJECTED = 1;
+    public static final byte NOT_FOUND = 2;
+    public static final byte BAD_REQUEST = 3;
+    public static final byte ERROR = 4;
+
+    public static final int NO_DAY = -1;
+
+    public static final int COMMAND_LENGTH = 1 + 8 + 8 + 4 + 4 + 4;
+    public static final int RESPONSE_LENGTH = 8 + 8 + 1 + 4;
+    /**
+     * Frames claiming to be longer than this are treated as a broken stream.
+     */
+    public static final int MAX_FRAME_LENGTH = 1024;
+
+    private WireProtocol() {
+    }
+
+    /**
+     * Appends a command frame. The buffer needs Integer.BYTES + COMMAND_LENGTH bytes free.
+     */
+    public static void putCommand(ByteBuffer buffer, byte opcode, long requestIdHigh, long requestIdLow,
+                                  int roomNumber, int checkInDay, int checkOutDay) {
+        buffer.putInt(COMMAND_LENGTH)
+            .put(opcode)
+            .putLong(requestIdHigh)
+            .putLong(requestIdLow)
+            .putInt(roomNumber)
+            .putInt(checkInDay)
+            .putInt(checkOutDay);
+    }
+
+    /**
+     * Appends a response frame. The buffer needs Integer.BYTES + RESPONSE_LENGTH bytes free.
+     */
+    public static void putResponse(ByteBuffer buffer, long requestIdHigh, long requestIdLow, byte status, int value) {
+        buffer.putInt(RESPONSE_LENGTH)
+            .putLong(requestIdHigh)
+            .putLong(requestIdLow)
+            .put(status)
+            .putInt(value);
+    }
+}
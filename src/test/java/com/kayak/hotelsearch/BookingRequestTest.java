@@ -3,6 +3,7 @@ package com.kayak.hotelsearch;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.time.LocalDateTime;
+import com.kayak.hotelsearch.booking.RequestIdGenerator;
 
 /**
  * Unit tests for BookingRequest validation and functionality.
@@ -102,4 +103,18 @@ class BookingRequestTest {
         );
         assertEquals(BookingRequest.BookingStatus.PENDING, rejectedRequest.getStatus());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testRequestIdGenerator() {
+        // Test that request IDs are time-ordered by default and come from a supplied generator otherwise
+        LocalDateTime now = LocalDateTime.now();
+        BookingRequest first = new BookingRequest("John Doe", 101, now.plusDays(1), now.plusDays(3));
+        BookingRequest second = new BookingRequest("John Doe", 101, now.plusDays(1), now.plusDays(3));
+        assertEquals(7, first.getRequestId().version());
+        assertTrue(first.getRequestId().compareTo(second.getRequestId()) < 0);
+
+        BookingRequest random = new BookingRequest("John Doe", 101, now.plusDays(1), now.plusDays(3),
+            RequestIdGenerator.random());
+        assertEquals(4, random.getRequestId().version());
+    }
+}
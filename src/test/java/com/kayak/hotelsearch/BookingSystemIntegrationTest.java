@@ -147,4 +147,18 @@ class BookingSystemIntegrationTest {
         assertTrue(metrics.getAverageProcessingTime() >= 0);
         assertTrue(metrics.getConcurrentBookingCount() >= 0);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testDatedBookingFromRequest() {
+        // Two guests for the same dates fill room 103's two units
+        LocalDateTime checkIn = LocalDateTime.now().plusDays(7);
+        LocalDateTime checkOut = checkIn.plusDays(2);
+
+        assertTrue(roomService.bookRoom(new BookingRequest("Guest A", 103, checkIn, checkOut)));
+        assertTrue(roomService.bookRoom(new BookingRequest("Guest B", 103, checkIn, checkOut)));
+        assertFalse(roomService.bookRoom(new BookingRequest("Guest C", 103, checkIn.plusDays(1), checkOut.plusDays(1))));
+
+        // The next stay after check-out is unaffected
+        assertTrue(roomService.bookRoom(new BookingRequest("Guest C", 103, checkOut, checkOut.plusDays(1))));
+    }
+}
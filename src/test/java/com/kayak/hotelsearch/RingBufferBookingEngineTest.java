@@ -0,0 +1,123 @@
+package com.kayak.hotelsearch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+
+/**
+ * Unit tests for RingBufferBookingEngine.
+ */
+class RingBufferBookingEngineTest {
+    private RoomDatabaseAccessService service;
+    private RingBufferBookingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        service = new RoomDatabaseAccessService();
+        service.addRoom(new Room(101, null, 3));
+        service.addRoom(new Room(102, null, 1_000_000));
+        // A small ring so the tests wrap it many times
+        engine = new RingBufferBookingEngine(service, 2, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void testCommandsApplyInSubmissionOrder() {
+        List<CompletableFuture<BookingOutcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            outcomes.add(engine.bookRoom(101));
+        }
+        engine.releaseRoom(101).join();
+        outcomes.add(engine.bookRoom(101));
+
+        // Three units go to the first three bookings; the release frees one for the last
+        assertEquals(List.of(BookingOutcome.BOOKED, BookingOutcome.BOOKED, BookingOutcome.BOOKED,
+                BookingOutcome.SOLD_OUT, BookingOutcome.SOLD_OUT, BookingOutcome.BOOKED),
+            outcomes.stream().map(CompletableFuture::join).toList());
+        assertEquals(BookingOutcome.NOT_FOUND, engine.bookRoom(999).join());
+    }
+
+    @Test
+    void testConcurrentProducersThroughSmallRing() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<BookingOutcome>> outcomes = new ArrayList<>();
+        List<Future<?>> producers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            producers.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    CompletableFuture<BookingOutcome> outcome = engine.bookRoom(102);
+                    synchronized (outcomes) {
+                        outcomes.add(outcome);
+                    }
+                }
+            }));
+        }
+        for (Future<?> producer : producers) {
+            producer.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (CompletableFuture<BookingOutcome> outcome : outcomes) {
+            assertEquals(BookingOutcome.BOOKED, outcome.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1_000_000 - 8_000, service.getRoom(102).getAvailableRooms());
+    }
+
+    @Test
+    void testCloseDrainsQueuedCommands() {
+        List<CompletableFuture<BookingOutcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            outcomes.add(engine.bookRoom(102));
+        }
+        engine.close();
+
+        assertTrue(outcomes.stream().allMatch(CompletableFuture::isDone));
+        assertEquals(1_000_000 - 100, service.getRoom(102).getAvailableRooms());
+        assertThrows(IllegalStateException.class, () -> engine.bookRoom(102));
+    }
+
+    @Test
+    void testIdleWritersParkUntilCommandsArrive() throws Exception {
+        // Rooms 101 and 102 belong to different partitions, so both writers have run
+        engine.bookRoom(101).join();
+        engine.bookRoom(102).join();
+        List<Thread> writers = Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("booking-writer-"))
+            .toList();
+        assertEquals(2, writers.size());
+
+        // With nothing queued each writer blocks with no timeout instead of polling
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writers.stream().anyMatch(writer -> writer.getState() != Thread.State.WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        for (Thread writer : writers) {
+            assertEquals(Thread.State.WAITING, writer.getState());
+        }
+
+        assertEquals(BookingOutcome.BOOKED, engine.bookRoom(101).get(5, TimeUnit.SECONDS));
+        engine.releaseRoom(102).get(5, TimeUnit.SECONDS);
+        assertEquals(1, service.getRoom(101).getAvailableRooms());
+        assertEquals(1_000_000, service.getRoom(102).getAvailableRooms());
+    }
+
+    @Test
+    void testInvalidRingSize() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferBookingEngine(service, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferBookingEngine(service, 0, 64));
+    }
+}
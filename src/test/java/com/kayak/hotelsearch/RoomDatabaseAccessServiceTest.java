@@ -3,6 +3,22 @@ package com.kayak.hotelsearch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.kayak.hotelsearch.booking.BackoffPolicy;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.HoldId;
+import com.kayak.hotelsearch.room.RoomQuery;
+import com.kayak.hotelsearch.room.RoomType;
 
 /**
  * Unit tests for RoomDatabaseAccessService.
@@ -47,6 +63,91 @@ class RoomDatabaseAccessServiceTest {
         assertEquals(3, room.getAvailableRooms()); // 5 total - 2 booked
     }
 
+    @Test
+    void testTryBookRoom_Outcomes() {
+        // Room 103 has two units
+        assertEquals(BookingOutcome.BOOKED, service.tryBookRoom(103));
+        assertEquals(BookingOutcome.BOOKED, service.tryBookRoom(103));
+        assertEquals(BookingOutcome.SOLD_OUT, service.tryBookRoom(103));
+        assertEquals(BookingOutcome.NOT_FOUND, service.tryBookRoom(999));
+    }
+
+    @Test
+    void testBookRoom_NoOversellUnderContention() throws InterruptedException {
+        // Many threads race for room 101's five units
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger successes = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                if (service.bookRoom(101)) {
+                    successes.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(5, successes.get());
+        assertEquals(0, service.getRoom(101).getAvailableRooms());
+    }
+
+    @Test
+    void testIsAvailable_FollowsInventoryUnderContention() throws InterruptedException {
+        // Threads race to take and give back room 103's two units
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            executor.submit(() -> {
+                if (service.bookRoom(103)) {
+                    service.releaseRoom(103);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Room room = service.getRoom(103);
+        assertEquals(2, room.getAvailableRooms());
+        assertTrue(room.isAvailable());
+
+        assertTrue(service.bookRoom(103));
+        assertTrue(service.bookRoom(103));
+        assertFalse(room.isAvailable());
+    }
+
+    @Test
+    void testBookRooms_BatchOutcomesInInputOrder() {
+        // Room 103 has two units, so its third request in input order is sold out
+        List<com.kayak.hotelsearch.booking.BookingRequest> batch = List.of(
+            new com.kayak.hotelsearch.booking.BookingRequest(103, "Guest 1"),
+            new com.kayak.hotelsearch.booking.BookingRequest(101, "Guest 2"),
+            new com.kayak.hotelsearch.booking.BookingRequest(999, "Guest 3"),
+            new com.kayak.hotelsearch.booking.BookingRequest(103, "Guest 4"),
+            new com.kayak.hotelsearch.booking.BookingRequest(103, "Guest 5")
+        );
+
+        List<BookingOutcome> outcomes = service.bookRooms(batch);
+
+        assertEquals(List.of(BookingOutcome.BOOKED, BookingOutcome.BOOKED, BookingOutcome.NOT_FOUND,
+            BookingOutcome.BOOKED, BookingOutcome.SOLD_OUT), outcomes);
+        assertEquals(0, service.getRoom(103).getAvailableRooms());
+        assertEquals(4, service.getRoom(101).getAvailableRooms());
+    }
+
+    @Test
+    void testBookRooms_LargeBatch() {
+        List<com.kayak.hotelsearch.booking.BookingRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(new com.kayak.hotelsearch.booking.BookingRequest(101 + (i % 3), "Guest " + i));
+        }
+
+        List<BookingOutcome> outcomes = service.bookRooms(batch);
+
+        // 5 + 3 + 2 units across rooms 101-103
+        assertEquals(10, outcomes.stream().filter(o -> o == BookingOutcome.BOOKED).count());
+        assertEquals(BookingOutcome.BOOKED, outcomes.get(0));
+        assertEquals(BookingOutcome.SOLD_OUT, outcomes.get(9_999));
+    }
+
     @Test
     void testReleaseRoom() {
         // Book a room first
@@ -84,4 +185,249 @@ class RoomDatabaseAccessServiceTest {
         // Verify all rooms are removed
         assertTrue(service.getAllRooms().isEmpty());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testBookRoom_OverlappingStays() {
+        // Room 103 has two units, so a third overlapping stay must be rejected
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(3)));
+        assertTrue(service.bookRoom(103, checkIn.plusDays(1), checkIn.plusDays(4)));
+        assertFalse(service.bookRoom(103, checkIn.plusDays(2), checkIn.plusDays(5)));
+
+        // Checking in on another guest's check-out day does not overlap
+        assertTrue(service.bookRoom(103, checkIn.plusDays(3), checkIn.plusDays(5)));
+        assertFalse(service.isAvailable(103, checkIn.plusDays(3), checkIn.plusDays(4)));
+    }
+
+    @Test
+    void testReleaseRoom_FreesStay() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(2)));
+        assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(2)));
+        assertFalse(service.isAvailable(103, checkIn, checkIn.plusDays(2)));
+
+        assertTrue(service.releaseRoom(103, checkIn, checkIn.plusDays(2)));
+        assertTrue(service.bookRoom(103, checkIn.plusDays(1), checkIn.plusDays(3)));
+
+        // Releasing a stay that was never booked is reported
+        assertFalse(service.releaseRoom(103, checkIn.plusDays(5), checkIn.plusDays(6)));
+    }
+
+    @Test
+    void testBookRoom_InvalidStay() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        assertFalse(service.bookRoom(999, checkIn, checkIn.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> service.bookRoom(101, checkIn, checkIn));
+    }
+
+    @Test
+    void testRoomSnapshotIsPointInTime() {
+        var before = service.getRoomSnapshot();
+        assertTrue(service.bookRoom(101));
+
+        // The earlier view does not change; a new view sees the booking
+        var after = service.getRoomSnapshot();
+        assertEquals(5, before.get(101).getAvailableRooms());
+        assertEquals(4, after.get(101).getAvailableRooms());
+        assertSame(after, service.getRoomSnapshot());
+        assertEquals(3, after.values().size());
+    }
+
+    @Test
+    void testBookRoomAsyncRetriesUntilReleased() throws Exception {
+        // Room 103 has 2 units
+        assertTrue(service.bookRoom(103));
+        assertTrue(service.bookRoom(103));
+
+        CompletableFuture<BookingOutcome> pending =
+            service.bookRoomAsync(103, BackoffPolicy.fixed(10), Duration.ofSeconds(5));
+        assertFalse(pending.isDone());
+
+        service.releaseRoom(103);
+        assertEquals(BookingOutcome.BOOKED, pending.get(5, TimeUnit.SECONDS));
+        assertEquals(0, service.getRoom(103).getAvailableRooms());
+    }
+
+    @Test
+    void testBookRoomAsyncOutcomes() throws Exception {
+        assertEquals(BookingOutcome.BOOKED, service.bookRoomAsync(101).get(1, TimeUnit.SECONDS));
+        assertEquals(BookingOutcome.NOT_FOUND, service.bookRoomAsync(999).get(1, TimeUnit.SECONDS));
+
+        // A sold-out room gives up once the deadline would be passed
+        service.getRoom(102).setAvailableRooms(0);
+        CompletableFuture<BookingOutcome> soldOut =
+            service.bookRoomAsync(102, BackoffPolicy.exponential(5, 20), Duration.ofMillis(100));
+        assertEquals(BookingOutcome.SOLD_OUT, soldOut.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testBookRoomAsyncCancellation() throws Exception {
+        service.getRoom(102).setAvailableRooms(0);
+        CompletableFuture<BookingOutcome> pending =
+            service.bookRoomAsync(102, BackoffPolicy.fixed(20), Duration.ofSeconds(5));
+        assertTrue(pending.cancel(false));
+
+        // Inventory that frees up later is not taken by the cancelled request
+        service.releaseRoom(102);
+        Thread.sleep(100);
+        assertEquals(1, service.getRoom(102).getAvailableRooms());
+    }
+
+    @Test
+    void testWaitlistHandsReleasedUnitsInOrder() throws Exception {
+        service.getRoom(102).setAvailableRooms(0);
+        CompletableFuture<BookingOutcome> first = service.bookRoomOrWait(102, Duration.ofSeconds(5));
+        CompletableFuture<BookingOutcome> second = service.bookRoomOrWait(102, Duration.ofSeconds(5));
+        assertFalse(first.isDone());
+        assertEquals(2, service.getRoom(102).getWaitlist().size());
+
+        // Each release goes to the oldest waiter; inventory never becomes visible to others
+        service.releaseRoom(102);
+        assertEquals(BookingOutcome.BOOKED, first.getNow(null));
+        assertFalse(second.isDone());
+        assertEquals(0, service.getRoom(102).getAvailableRooms());
+
+        service.releaseRoom(102);
+        assertEquals(BookingOutcome.BOOKED, second.getNow(null));
+        assertTrue(service.getRoom(102).getWaitlist().isEmpty());
+    }
+
+    @Test
+    void testWaitlistTimeoutAndCancellation() throws Exception {
+        service.getRoom(102).setAvailableRooms(0);
+        CompletableFuture<BookingOutcome> timedOut = service.bookRoomOrWait(102, Duration.ofMillis(50));
+        CompletableFuture<BookingOutcome> cancelled = service.bookRoomOrWait(102, Duration.ofSeconds(5));
+        assertEquals(BookingOutcome.SOLD_OUT, timedOut.get(5, TimeUnit.SECONDS));
+        assertTrue(cancelled.cancel(false));
+        assertTrue(service.getRoom(102).getWaitlist().isEmpty());
+
+        // With nobody left waiting the unit returns to inventory
+        service.releaseRoom(102);
+        assertEquals(1, service.getRoom(102).getAvailableRooms());
+        assertEquals(BookingOutcome.BOOKED, service.bookRoomOrWait(102, Duration.ofSeconds(1)).getNow(null));
+    }
+
+    @Test
+    void testWaitlistUnderConcurrentReleases() throws Exception {
+        service.getRoom(101).setAvailableRooms(0);
+        List<CompletableFuture<BookingOutcome>> waiters = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 50; i++) {
+            executor.submit(() -> {
+                synchronized (waiters) {
+                    waiters.add(service.bookRoomOrWait(101, Duration.ofSeconds(10)));
+                }
+            });
+            executor.submit(() -> service.releaseRoom(101));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Every release ends up either with a waiter or back in inventory: nothing is lost
+        for (CompletableFuture<BookingOutcome> waiter : waiters) {
+            assertEquals(BookingOutcome.BOOKED, waiter.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(0, service.getRoom(101).getAvailableRooms());
+    }
+
+    @Test
+    void testHoldConfirmAndCancel() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        // Room 103 has 2 units
+        HoldId first = service.hold(103, checkIn, checkOut, Duration.ofMinutes(5));
+        HoldId second = service.hold(103, checkIn, checkOut, Duration.ofMinutes(5));
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(service.hold(103, checkIn, checkOut, Duration.ofMinutes(5)));
+
+        assertTrue(service.confirm(first));
+        assertFalse(service.confirm(first));
+        assertTrue(service.cancel(second));
+        assertFalse(service.cancel(second));
+        assertEquals(0, service.getActiveHoldCount());
+
+        // The cancelled unit is free again; the confirmed one is not
+        assertTrue(service.bookRoom(103, checkIn, checkOut));
+        assertFalse(service.isAvailable(103, checkIn, checkOut));
+    }
+
+    @Test
+    void testHoldExpires() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        HoldId hold = service.hold(101, checkIn, checkIn.plusDays(1), Duration.ofMillis(30));
+        assertNotNull(hold);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getActiveHoldCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, service.getActiveHoldCount());
+        assertFalse(service.confirm(hold));
+        assertEquals(0, service.getRoom(101).getCalendar().getStayCount());
+    }
+
+    @Test
+    void testReplayedRequestIdDoesNotDoubleBook() throws Exception {
+        UUID requestId = UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<BookingOutcome>> outcomes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            outcomes.add(executor.submit(() -> service.bookRoom(requestId, 101)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Concurrent and later retries all see the one booking
+        for (Future<BookingOutcome> outcome : outcomes) {
+            assertEquals(BookingOutcome.BOOKED, outcome.get());
+        }
+        assertEquals(4, service.getRoom(101).getAvailableRooms());
+        assertEquals(BookingOutcome.BOOKED, service.bookRoom(requestId, 101));
+        assertEquals(BookingOutcome.BOOKED, service.bookRoom(UUID.randomUUID(), 101));
+        assertEquals(3, service.getRoom(101).getAvailableRooms());
+    }
+
+    @Test
+    void testFindAvailableRoomsFollowsStaysAndHolds() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        LocalDate checkOut = checkIn.plusDays(3);
+        service.addRoom(new Room(201, RoomType.SINGLE, 90.0, true));
+        service.addRoom(new Room(202, RoomType.SINGLE, 90.0, true));
+        assertArrayEquals(new int[] {101, 102, 103, 201, 202}, service.findAvailableRooms(checkIn, checkOut, null));
+
+        // One night taken in the middle of the stay is enough to exclude a room
+        assertTrue(service.bookRoom(201, checkIn.plusDays(1), checkIn.plusDays(2)));
+        HoldId hold = service.hold(202, checkOut, checkOut.plusDays(1), Duration.ofMinutes(5));
+        assertArrayEquals(new int[] {202}, service.findAvailableRooms(checkIn, checkOut, RoomType.SINGLE));
+        assertArrayEquals(new int[0], service.findAvailableRooms(checkIn, checkOut.plusDays(1), RoomType.SINGLE));
+
+        // Room 103 has 2 units: leave the first busy on night 1 and the second on nights 2-3,
+        // so every night has a free unit but neither unit is free for the whole stay
+        assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(2)));
+        assertTrue(service.bookRoom(103, checkIn.plusDays(1), checkOut));
+        assertTrue(service.releaseRoom(103, checkIn, checkIn.plusDays(2)));
+        assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(1)));
+        assertArrayEquals(new int[] {101, 102, 202}, service.findAvailableRooms(checkIn, checkOut, null));
+
+        assertTrue(service.releaseRoom(201, checkIn.plusDays(1), checkIn.plusDays(2)));
+        assertTrue(service.cancel(hold));
+        assertArrayEquals(new int[] {201, 202}, service.findAvailableRooms(checkIn, checkOut.plusDays(1), RoomType.SINGLE));
+    }
+
+    @Test
+    void testFindCheapestRooms() {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        service.addRoom(new Room(201, RoomType.DOUBLE, 180.0, true));
+        service.addRoom(new Room(202, RoomType.DOUBLE, 120.0, true));
+        service.addRoom(new Room(203, RoomType.DOUBLE, 150.0, true));
+        service.addRoom(new Room(204, RoomType.SINGLE, 90.0, true));
+        assertTrue(service.bookRoom(202, checkIn, checkIn.plusDays(2)));
+
+        RoomQuery doubles = RoomQuery.any().withType(RoomType.DOUBLE);
+        assertEquals(List.of(202, 203), service.findCheapestRooms(doubles, 2).stream().map(Room::getRoomNumber).toList());
+        assertEquals(List.of(203, 201), service.findCheapestRooms(doubles.withStay(checkIn, checkIn.plusDays(3)), 5)
+            .stream().map(Room::getRoomNumber).toList());
+    }
+}
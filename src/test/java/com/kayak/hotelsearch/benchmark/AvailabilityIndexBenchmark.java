@@ -0,0 +1,89 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.room.AvailabilityIndex;
+import com.kayak.hotelsearch.room.RoomType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures "available DOUBLE rooms under 250" through the AvailabilityIndex against a full
+ * scan of every room, plus the cost of keeping the index current across a book and release.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityIndexBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000"})
+    private int roomCount;
+
+    private AvailabilityIndex index;
+    private List<Room> rooms;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        index = new AvailabilityIndex();
+        rooms = new ArrayList<>(roomCount);
+        random = new SplittableRandom(42);
+        RoomType[] roomTypes = RoomType.values();
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room(10_000 + i, roomTypes[i % roomTypes.length], 50 + random.nextInt(950), true);
+            rooms.add(room);
+            index.update(room);
+        }
+    }
+
+    @Benchmark
+    public List<Room> indexedSearch() {
+        return index.search(RoomType.DOUBLE, 0, 250, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Room> indexedSearchThirdPage() {
+        return index.search(RoomType.DOUBLE, 0, 250, 2 * PAGE_SIZE, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Room> fullScan() {
+        List<Room> matches = new ArrayList<>();
+        for (Room room : rooms) {
+            if (room.getRoomType() == RoomType.DOUBLE && room.getPrice() <= 250
+                    && room.isAvailable() && room.getAvailableRooms() > 0) {
+                matches.add(room);
+            }
+        }
+        matches.sort((a, b) -> Double.compare(a.getPrice(), b.getPrice()));
+        return matches.subList(0, Math.min(PAGE_SIZE, matches.size()));
+    }
+
+    @Benchmark
+    public boolean bookAndReleaseWithIndex() {
+        Room room = rooms.get(random.nextInt(roomCount));
+        boolean booked = room.bookRoom();
+        index.update(room);
+        if (booked) {
+            room.releaseRoom();
+            index.update(room);
+        }
+        return booked;
+    }
+}
@@ -0,0 +1,94 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.room.AvailabilityQueryExecutor;
+import com.kayak.hotelsearch.room.RoomQuery;
+import com.kayak.hotelsearch.room.RoomTable;
+import com.kayak.hotelsearch.room.RoomType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of a full-inventory "20 cheapest doubles free for a week" search over 100,000 rooms.
+ * copyAndSort is the old approach: copy the table into a map, filter and sort on one thread.
+ * parallelScan should fall roughly with the parallelism param, up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityQueryBenchmark {
+    private static final int ROOMS = 100_000;
+    private static final int LIMIT = 20;
+    private static final LocalDate CHECK_IN = LocalDate.of(2030, 3, 1);
+
+    @Param({"1", "4"})
+    int parallelism;
+
+    private RoomTable table;
+    private RoomQuery query;
+    private AvailabilityQueryExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.silenceLogging();
+        table = new RoomTable();
+        SplittableRandom random = new SplittableRandom(42);
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = new Room(1_000 + i, types[random.nextInt(types.length)], 50 + random.nextInt(450), true);
+            // About half the rooms have a stay somewhere in the searched month
+            if (random.nextBoolean()) {
+                long day = CHECK_IN.toEpochDay() + random.nextInt(30);
+                room.getCalendar().book(day, day + 1 + random.nextInt(7));
+            }
+            table.put(room);
+        }
+        query = RoomQuery.any().withType(RoomType.DOUBLE).withPrice(100, 400)
+            .withStay(CHECK_IN.plusDays(10), CHECK_IN.plusDays(17));
+        executor = new AvailabilityQueryExecutor(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    public List<Room> parallelScan() {
+        return executor.findCheapest(table, query, LIMIT);
+    }
+
+    @Benchmark
+    public List<Room> copyAndSort() {
+        Map<Integer, Room> rooms = table.toMap();
+        List<Room> matches = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            if (query.matches(room)) {
+                matches.add(room);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Room::getPrice).thenComparingInt(Room::getRoomNumber));
+        return matches.subList(0, Math.min(LIMIT, matches.size()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point used by the 'benchmark' Maven profile.
+ * Runs the benchmarks matching -Djmh.include and writes JSON results to -Djmh.resultDir so
+ * runs can be compared between releases. -Djmh.threads=1,2,4,...,64 repeats the run once per
+ * thread count, overriding @Threads; left empty, each benchmark uses its own annotation.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*Benchmark.*");
+        Path resultDir = Path.of(System.getProperty("jmh.resultDir", "target/jmh"));
+        List<Integer> threadCounts = parseThreadCounts(System.getProperty("jmh.threads", ""));
+        Files.createDirectories(resultDir);
+
+        if (threadCounts.isEmpty()) {
+            run(include, resultDir.resolve("jmh-result.json"), 0);
+        } else {
+            for (int threads : threadCounts) {
+                run(include, resultDir.resolve("jmh-result-t" + threads + ".json"), threads);
+            }
+        }
+    }
+
+    private static void run(String include, Path resultFile, int threads) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(include)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.toString());
+        if (threads > 0) {
+            options.threads(threads);
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static List<Integer> parseThreadCounts(String threads) {
+        List<Integer> counts = new ArrayList<>();
+        for (String count : threads.split(",")) {
+            if (!count.isBlank()) {
+                counts.add(Integer.parseInt(count.trim()));
+            }
+        }
+        return counts;
+    }
+}
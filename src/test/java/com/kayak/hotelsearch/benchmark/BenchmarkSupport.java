@@ -0,0 +1,21 @@
+package com.kayak.hotelsearch.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared helpers for the JMH benchmarks.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Turns off application logging so benchmarks measure the booking path, not the appenders.
+     */
+    static void silenceLogging() {
+        ((Logger) LoggerFactory.getLogger("com.kayak.hotelsearch")).setLevel(Level.OFF);
+    }
+}
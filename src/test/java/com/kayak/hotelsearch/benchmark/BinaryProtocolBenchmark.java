@@ -0,0 +1,78 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.wire.BinaryBookingClient;
+import com.kayak.hotelsearch.wire.BinaryBookingServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Booking throughput of the binary protocol over loopback, per command.
+ * depth 1 waits for each response before sending the next command; higher depths pipeline
+ * that many commands per round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryProtocolBenchmark {
+    private static final int ROOM_NUMBER = 101;
+    private static final int BATCH = 256;
+
+    @Param({"1", "16", "256"})
+    int depth;
+
+    private RoomDatabaseAccessService service;
+    private BinaryBookingServer server;
+    private BinaryBookingClient client;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.silenceLogging();
+        service = new RoomDatabaseAccessService();
+        service.addRoom(new Room(ROOM_NUMBER, null, Integer.MAX_VALUE));
+        server = new BinaryBookingServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+        server.start();
+        client = new BinaryBookingClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int book() throws IOException {
+        int sum = 0;
+        for (int sent = 0; sent < BATCH; sent += depth) {
+            for (int i = 0; i < depth; i++) {
+                client.book(null, ROOM_NUMBER);
+            }
+            for (int i = 0; i < depth; i++) {
+                sum += client.readResponse().getStatus();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.ExecutionMode;
+import com.kayak.hotelsearch.metrics.BookingMetrics;
+import com.kayak.hotelsearch.room.RoomType;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recording overhead BookingMetrics adds to every booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMetricsBenchmark {
+    private BookingMetrics metrics;
+
+    @Setup
+    public void setUp() {
+        metrics = new BookingMetrics();
+    }
+
+    @Benchmark
+    public void recordSuccessfulBooking() {
+        metrics.recordSuccessfulBooking();
+    }
+
+    @Benchmark
+    public void timeBooking() {
+        Timer.Sample sample = metrics.startBookingTimer();
+        metrics.stopBookingTimer(sample);
+    }
+
+    @Benchmark
+    public void timeBookingByMode() {
+        Timer.Sample sample = metrics.startBookingTimer();
+        metrics.stopBookingTimer(sample, ExecutionMode.VIRTUAL_THREADS);
+    }
+
+    @Benchmark
+    public void recordTaggedLatency() {
+        metrics.recordBookingLatency(250_000, BookingOutcome.BOOKED, RoomType.DOUBLE, 0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.BookingRequest;
+import com.kayak.hotelsearch.booking.RequestIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction and validation cost of both booking request types.
+ * The rejected case measures the exception path taken for invalid input, and the
+ * randomIdRequest case the previous UUID.randomUUID() request IDs. Run with -Djmh.threads=N
+ * to see the shared SecureRandom behind random IDs contend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingRequestBenchmark {
+    private LocalDateTime checkIn;
+    private LocalDateTime checkOut;
+
+    @Setup
+    public void setUp() {
+        checkIn = LocalDateTime.now().plusDays(30);
+        checkOut = checkIn.plusDays(3);
+    }
+
+    @Benchmark
+    public BookingRequest validatedRequest() {
+        return new BookingRequest("John Doe", 101, checkIn, checkOut);
+    }
+
+    @Benchmark
+    public BookingRequest randomIdRequest() {
+        return new BookingRequest("John Doe", 101, checkIn, checkOut, RequestIdGenerator.random());
+    }
+
+    @Benchmark
+    public Object rejectedRequest() {
+        try {
+            return new BookingRequest("John Doe", 1000, checkIn, checkOut);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public com.kayak.hotelsearch.booking.BookingRequest simpleRequest() {
+        return new com.kayak.hotelsearch.booking.BookingRequest(101, "John Doe");
+    }
+}
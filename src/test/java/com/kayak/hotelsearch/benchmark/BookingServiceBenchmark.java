@@ -0,0 +1,158 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RingBufferBookingEngine;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.room.RoomStateSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Booking hot path of RoomDatabaseAccessService, called directly and through a
+ * RingBufferBookingEngine on the same rooms and room sequence.
+ * Room choice is pre-generated per thread: UNIFORM spreads bookings over every room, while
+ * HOT_ROOM sends most of them to a single room to expose contention. Run with
+ * -Djmh.threads=1,2,4,8,16,32,64 to sweep thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+    static final int FIRST_ROOM = 100;
+    private static final int SEQUENCE_LENGTH = 4096;
+    private static final int HOT_ROOM_PERCENT = 80;
+    private static final int PIPELINE_DEPTH = 64;
+
+    public enum Skew {
+        UNIFORM,
+        HOT_ROOM
+    }
+
+    @Param({"10", "100", "900"})
+    int roomCount;
+
+    @Param({"UNIFORM", "HOT_ROOM"})
+    Skew skew;
+
+    private RoomDatabaseAccessService service;
+    private RingBufferBookingEngine engine;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceLogging();
+        service = new RoomDatabaseAccessService();
+        for (int i = 0; i < roomCount; i++) {
+            service.addRoom(new Room(FIRST_ROOM + i, null, 1_000_000));
+        }
+        engine = new RingBufferBookingEngine(service);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    /**
+     * Per-thread sequence of room numbers following the configured skew.
+     */
+    @State(Scope.Thread)
+    public static class RoomSequence {
+        private int[] roomNumbers;
+        private int next;
+
+        @Setup
+        public void setUp(BookingServiceBenchmark benchmark) {
+            SplittableRandom random = new SplittableRandom();
+            roomNumbers = new int[SEQUENCE_LENGTH];
+            for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+                boolean hot = benchmark.skew == Skew.HOT_ROOM && random.nextInt(100) < HOT_ROOM_PERCENT;
+                roomNumbers[i] = FIRST_ROOM + (hot ? 0 : random.nextInt(benchmark.roomCount));
+            }
+        }
+
+        int nextRoom() {
+            int roomNumber = roomNumbers[next];
+            next = (next + 1) & (SEQUENCE_LENGTH - 1);
+            return roomNumber;
+        }
+    }
+
+    @Benchmark
+    public boolean bookAndRelease(RoomSequence sequence) {
+        int roomNumber = sequence.nextRoom();
+        boolean booked = service.bookRoom(roomNumber);
+        if (booked) {
+            service.releaseRoom(roomNumber);
+        }
+        return booked;
+    }
+
+    /**
+     * Same work as bookAndRelease, but each command waits its turn on the room's writer thread.
+     */
+    @Benchmark
+    public BookingOutcome bookAndReleaseRingBuffer(RoomSequence sequence) {
+        int roomNumber = sequence.nextRoom();
+        BookingOutcome outcome = engine.bookRoom(roomNumber).join();
+        if (outcome == BookingOutcome.BOOKED) {
+            engine.releaseRoom(roomNumber).join();
+        }
+        return outcome;
+    }
+
+    /**
+     * Submits PIPELINE_DEPTH bookings before waiting for any of them, as a caller feeding the
+     * engine a stream of requests would, then releases whatever was booked the same way.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public int bookAndReleaseRingBufferPipelined(RoomSequence sequence) {
+        int[] roomNumbers = new int[PIPELINE_DEPTH];
+        List<CompletableFuture<BookingOutcome>> outcomes = new ArrayList<>(PIPELINE_DEPTH);
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            roomNumbers[i] = sequence.nextRoom();
+            outcomes.add(engine.bookRoom(roomNumbers[i]));
+        }
+        CompletableFuture<Void> released = CompletableFuture.completedFuture(null);
+        int booked = 0;
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            if (outcomes.get(i).join() == BookingOutcome.BOOKED) {
+                released = engine.releaseRoom(roomNumbers[i]);
+                booked++;
+            }
+        }
+        released.join();
+        return booked;
+    }
+
+    @Benchmark
+    public Map<Integer, Room> getAllRooms() {
+        return service.getAllRooms();
+    }
+
+    @Benchmark
+    public RoomStateSnapshot getRoomSnapshot() {
+        return service.getRoomSnapshot();
+    }
+}
@@ -0,0 +1,93 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.room.OccupancyIndex;
+import com.kayak.hotelsearch.room.RoomType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of finding every room free for a 14-night stay: the occupancy bitmaps against
+ * checking each room's calendar. Rooms have the given number of units and are spread over all
+ * RoomTypes, with random stays booked over a 90-night horizon until the given fraction of
+ * room-nights is taken. Multi-unit rooms left by the bitmaps still have their calendar checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OccupancyIndexBenchmark {
+    private static final int ROOMS = 100_000;
+    private static final int HORIZON = 90;
+    private static final int STAY_NIGHTS = 14;
+
+    @Param({"0.05", "0.3"})
+    double occupancy;
+
+    @Param({"1", "3"})
+    int units;
+
+    private OccupancyIndex index;
+    private Room[] rooms;
+    private long checkIn;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceLogging();
+        index = new OccupancyIndex();
+        rooms = new Room[ROOMS];
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms[i] = new Room(i, types[i % types.length], 100.0, null, units);
+            index.addRoom(rooms[i]);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        long booked = 0;
+        while (booked < occupancy * ROOMS * units * HORIZON) {
+            Room room = rooms[random.nextInt(ROOMS)];
+            int nights = 1 + random.nextInt(7);
+            long day = random.nextInt(HORIZON - nights);
+            if (room.getCalendar().book(day, day + nights) >= 0) {
+                index.update(room, day, day + nights);
+                booked += nights;
+            }
+        }
+        checkIn = (HORIZON - STAY_NIGHTS) / 2;
+    }
+
+    @Benchmark
+    public int[] bitmapSearch() {
+        return index.findAvailable(checkIn, checkIn + STAY_NIGHTS, null);
+    }
+
+    @Benchmark
+    public int[] bitmapSearchByType() {
+        return index.findAvailable(checkIn, checkIn + STAY_NIGHTS, RoomType.SUITE);
+    }
+
+    @Benchmark
+    public int[] calendarScan() {
+        int[] found = new int[ROOMS];
+        int count = 0;
+        for (Room room : rooms) {
+            if (room.getCalendar().isAvailable(checkIn, checkIn + STAY_NIGHTS)) {
+                found[count++] = room.getRoomNumber();
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+}
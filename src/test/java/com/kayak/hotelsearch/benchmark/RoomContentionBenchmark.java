@@ -0,0 +1,128 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Contention benchmark for the compare-and-set inventory counter.
+ * The hot variants have every thread book and release the same room, which bounds
+ * throughput by a single cache line. The spread variants give each thread its own room,
+ * which is what should scale with thread count. The sold-out variant measures how quickly
+ * an empty room is reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomContentionBenchmark {
+    private static final int HOT_ROOM = 101;
+    private static final int SOLD_OUT_ROOM = 102;
+    private static final int FIRST_SPREAD_ROOM = 200;
+    private static final int SPREAD_ROOMS = 64;
+
+    private final AtomicInteger nextSpreadRoom = new AtomicInteger(FIRST_SPREAD_ROOM);
+
+    private RoomDatabaseAccessService service;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceLogging();
+        service = new RoomDatabaseAccessService();
+        service.addRoom(new Room(HOT_ROOM, null, 1_000_000));
+        service.addRoom(new Room(SOLD_OUT_ROOM, null, 0));
+        for (int i = 0; i < SPREAD_ROOMS; i++) {
+            service.addRoom(new Room(FIRST_SPREAD_ROOM + i, null, 1_000_000));
+        }
+    }
+
+    /**
+     * Gives each benchmark thread a room of its own.
+     */
+    @State(Scope.Thread)
+    public static class OwnRoom {
+        int roomNumber;
+
+        @Setup
+        public void setUp(RoomContentionBenchmark benchmark) {
+            roomNumber = benchmark.nextSpreadRoom.getAndIncrement();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean hot_1Thread() {
+        return bookAndRelease(HOT_ROOM);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean hot_2Threads() {
+        return bookAndRelease(HOT_ROOM);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean hot_4Threads() {
+        return bookAndRelease(HOT_ROOM);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean hot_8Threads() {
+        return bookAndRelease(HOT_ROOM);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean spread_1Thread(OwnRoom own) {
+        return bookAndRelease(own.roomNumber);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean spread_2Threads(OwnRoom own) {
+        return bookAndRelease(own.roomNumber);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean spread_4Threads(OwnRoom own) {
+        return bookAndRelease(own.roomNumber);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean spread_8Threads(OwnRoom own) {
+        return bookAndRelease(own.roomNumber);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BookingOutcome soldOut_4Threads() {
+        return service.tryBookRoom(SOLD_OUT_ROOM);
+    }
+
+    private boolean bookAndRelease(int roomNumber) {
+        boolean booked = service.bookRoom(roomNumber);
+        if (booked) {
+            service.releaseRoom(roomNumber);
+        }
+        return booked;
+    }
+}
@@ -0,0 +1,75 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.room.RoomTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares room lookups in RoomTable against the boxed ConcurrentHashMap it replaced.
+ * Each invocation looks up a fixed batch of pre-generated room numbers, so the cost of
+ * picking random numbers stays out of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomTableBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"100", "900"})
+    private int roomCount;
+
+    private RoomTable table;
+    private Map<Integer, Room> map;
+    private int[] lookups;
+
+    @Setup
+    public void setUp() {
+        table = new RoomTable();
+        map = new ConcurrentHashMap<>();
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room(RoomTable.MIN_DENSE_ROOM + i);
+            table.put(room);
+            map.put(room.getRoomNumber(), room);
+        }
+
+        lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = RoomTable.MIN_DENSE_ROOM + ThreadLocalRandom.current().nextInt(roomCount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void roomTable(Blackhole blackhole) {
+        for (int roomNumber : lookups) {
+            blackhole.consume(table.get(roomNumber));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void concurrentHashMap(Blackhole blackhole) {
+        for (int roomNumber : lookups) {
+            blackhole.consume(map.get(roomNumber));
+        }
+    }
+}
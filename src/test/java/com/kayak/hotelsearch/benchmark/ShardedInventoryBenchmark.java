@@ -0,0 +1,92 @@
+package com.kayak.hotelsearch.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.hotel.HotelId;
+import com.kayak.hotelsearch.hotel.ShardedInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Book-and-release throughput of ShardedInventory across many hotels.
+ * Each thread books random rooms in random hotels. Run with -Djmh.threads=1,2,4,8,...
+ * to check that throughput grows with cores; shardCount 1 is the single-lock baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedInventoryBenchmark {
+    private static final int ROOMS_PER_HOTEL = 20;
+    private static final int FIRST_ROOM = 100;
+    private static final int SEQUENCE_LENGTH = 4096;
+
+    @Param({"10000", "50000"})
+    int hotelCount;
+
+    @Param({"1", "64"})
+    int shardCount;
+
+    private ShardedInventory inventory;
+    private HotelId[] hotelIds;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceLogging();
+        inventory = new ShardedInventory(shardCount);
+        hotelIds = new HotelId[hotelCount];
+        for (int hotel = 0; hotel < hotelCount; hotel++) {
+            hotelIds[hotel] = new HotelId(hotel);
+            for (int room = 0; room < ROOMS_PER_HOTEL; room++) {
+                inventory.addRoom(hotelIds[hotel], new Room(FIRST_ROOM + room, null, 1_000_000));
+            }
+        }
+    }
+
+    /**
+     * Per-thread pre-generated sequence of hotels and rooms.
+     */
+    @State(Scope.Thread)
+    public static class RequestSequence {
+        private HotelId[] hotelIds;
+        private int[] roomNumbers;
+        private int next;
+
+        @Setup
+        public void setUp(ShardedInventoryBenchmark benchmark) {
+            SplittableRandom random = new SplittableRandom();
+            hotelIds = new HotelId[SEQUENCE_LENGTH];
+            roomNumbers = new int[SEQUENCE_LENGTH];
+            for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+                hotelIds[i] = benchmark.hotelIds[random.nextInt(benchmark.hotelCount)];
+                roomNumbers[i] = FIRST_ROOM + random.nextInt(ROOMS_PER_HOTEL);
+            }
+        }
+    }
+
+    @Benchmark
+    public BookingOutcome bookAndRelease(RequestSequence sequence) {
+        int i = sequence.next;
+        sequence.next = (i + 1) & (SEQUENCE_LENGTH - 1);
+        HotelId hotelId = sequence.hotelIds[i];
+        int roomNumber = sequence.roomNumbers[i];
+        BookingOutcome outcome = inventory.bookRoom(hotelId, roomNumber);
+        if (outcome == BookingOutcome.BOOKED) {
+            inventory.releaseRoom(hotelId, roomNumber);
+        }
+        return outcome;
+    }
+}
@@ -0,0 +1,38 @@
+package com.kayak.hotelsearch.booking;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BackoffPolicy delays.
+ */
+class BackoffPolicyTest {
+
+    @Test
+    void testFixedAndExponential() {
+        assertEquals(25, BackoffPolicy.fixed(25).delayMillis(7));
+
+        BackoffPolicy exponential = BackoffPolicy.exponential(10, 1_000);
+        assertEquals(10, exponential.delayMillis(1));
+        assertEquals(20, exponential.delayMillis(2));
+        assertEquals(640, exponential.delayMillis(7));
+        assertEquals(1_000, exponential.delayMillis(8));
+        // Large attempt numbers stay at the cap instead of overflowing
+        assertEquals(1_000, exponential.delayMillis(200));
+    }
+
+    @Test
+    void testJitterStaysWithinDelay() {
+        BackoffPolicy jittered = BackoffPolicy.exponential(10, 1_000).withJitter();
+        for (int i = 0; i < 1_000; i++) {
+            long delay = jittered.delayMillis(4);
+            assertTrue(delay >= 0 && delay <= 80);
+        }
+    }
+
+    @Test
+    void testInvalidPolicies() {
+        assertThrows(IllegalArgumentException.class, () -> BackoffPolicy.fixed(-1));
+        assertThrows(IllegalArgumentException.class, () -> BackoffPolicy.exponential(100, 10));
+    }
+}
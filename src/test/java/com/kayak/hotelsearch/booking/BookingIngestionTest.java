@@ -0,0 +1,134 @@
+package com.kayak.hotelsearch.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for streaming request parsing and the bounded ingestion queue.
+ */
+class BookingIngestionTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadArrayFormat() throws IOException {
+        List<BookingRequest> requests = readAll(
+            "[{\"roomNumber\": 101, \"guest\": \"Guest 1\"}, {\"guest\": \"Guest 2\", \"roomNumber\": 102}]");
+
+        assertEquals(2, requests.size());
+        assertEquals(101, requests.get(0).getRoomNumber());
+        assertEquals("Guest 2", requests.get(1).getGuest());
+    }
+
+    @Test
+    void testReadNdjsonFormat() throws IOException {
+        // Unknown fields, including nested ones, are skipped
+        List<BookingRequest> requests = readAll(
+            "{\"roomNumber\": 101, \"guest\": \"Guest 1\", \"meta\": {\"source\": [1, 2]}}\n"
+                + "{\"roomNumber\": 103}\n");
+
+        assertEquals(2, requests.size());
+        assertEquals(103, requests.get(1).getRoomNumber());
+        assertNull(requests.get(1).getGuest());
+    }
+
+    @Test
+    void testReadSampleFile() throws IOException {
+        try (BookingRequestReader reader = new BookingRequestReader(
+                getClass().getResourceAsStream("/booking_requests.json"))) {
+            int count = 0;
+            while (reader.next() != null) {
+                count++;
+            }
+            assertEquals(10, count);
+        }
+    }
+
+    @Test
+    void testMalformedRequest() {
+        assertThrows(IOException.class, () -> readAll("[{\"guest\": \"No Room\"}]"));
+        assertThrows(IOException.class, () -> readAll("[42]"));
+    }
+
+    @Test
+    void testBoundedIngestionDeliversEverything() throws Exception {
+        // A queue much smaller than the file forces the reader to block on the consumer
+        Path file = tempDir.resolve("requests.jsonl");
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            lines.append("{\"roomNumber\": ").append(100 + (i % 900)).append("}\n");
+        }
+        Files.writeString(file, lines);
+
+        BookingIngestion ingestion = new BookingIngestion(16);
+        Thread reader = new Thread(() -> {
+            try {
+                ingestion.ingest(file);
+            } catch (IOException e) {
+                fail(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reader.start();
+
+        List<BookingRequest> batch = new ArrayList<>();
+        int received = 0;
+        while (ingestion.drainTo(batch, 100) > 0) {
+            assertTrue(batch.size() <= 100);
+            received += batch.size();
+            batch.clear();
+        }
+        reader.join();
+
+        assertEquals(5_000, received);
+        assertNull(ingestion.take()); // End of stream stays visible
+    }
+
+    @Test
+    void testReadFailureIsReportedAndEndsTheStream() throws Exception {
+        Path file = tempDir.resolve("broken.jsonl");
+        Files.writeString(file, "{\"roomNumber\": 101}\n{\"guest\": \"No Room\"}\n");
+
+        BookingIngestion ingestion = new BookingIngestion(16);
+        assertThrows(IOException.class, () -> ingestion.ingest(file));
+
+        // What was read before the failure is still delivered, then the stream ends
+        assertEquals(101, ingestion.take().getRoomNumber());
+        assertNull(ingestion.take());
+    }
+
+    @Test
+    void testFinishingDoesNotBlockOnAFullQueue() throws Exception {
+        Path file = tempDir.resolve("full.jsonl");
+        Files.writeString(file, "{\"roomNumber\": 101}\n{\"roomNumber\": 102}\n");
+
+        // Nobody consumes, but the reader still finishes once the file fits in the queue
+        BookingIngestion ingestion = new BookingIngestion(2);
+        assertEquals(2, ingestion.ingest(file));
+        assertEquals(101, ingestion.take().getRoomNumber());
+        assertEquals(102, ingestion.take().getRoomNumber());
+        assertNull(ingestion.take());
+    }
+
+    private static List<BookingRequest> readAll(String json) throws IOException {
+        List<BookingRequest> requests = new ArrayList<>();
+        try (BookingRequestReader reader = new BookingRequestReader(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            BookingRequest request;
+            while ((request = reader.next()) != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+}
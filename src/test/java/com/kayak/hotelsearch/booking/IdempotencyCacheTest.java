@@ -0,0 +1,63 @@
+package com.kayak.hotelsearch.booking;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for IdempotencyCache replay, expiry and bounds.
+ */
+class IdempotencyCacheTest {
+
+    @Test
+    void testReplayReturnsOriginalOutcome() {
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1));
+        UUID requestId = UUID.randomUUID();
+        AtomicInteger bookings = new AtomicInteger();
+
+        assertEquals(BookingOutcome.BOOKED, cache.execute(requestId, () -> {
+            bookings.incrementAndGet();
+            return BookingOutcome.BOOKED;
+        }));
+        assertEquals(BookingOutcome.BOOKED, cache.execute(requestId, () -> {
+            bookings.incrementAndGet();
+            return BookingOutcome.SOLD_OUT;
+        }));
+        assertEquals(1, bookings.get());
+        assertEquals(BookingOutcome.BOOKED, cache.get(requestId));
+    }
+
+    @Test
+    void testEntriesExpire() {
+        AtomicLong now = new AtomicLong();
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofSeconds(10), now::get);
+        UUID requestId = UUID.randomUUID();
+        cache.execute(requestId, () -> BookingOutcome.SOLD_OUT);
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertNull(cache.get(requestId));
+        assertEquals(BookingOutcome.BOOKED, cache.execute(requestId, () -> BookingOutcome.BOOKED));
+    }
+
+    @Test
+    void testSizeStaysBounded() {
+        IdempotencyCache cache = new IdempotencyCache(1_600, Duration.ofHours(1));
+        for (int i = 0; i < 100_000; i++) {
+            cache.execute(UUID.randomUUID(), () -> BookingOutcome.BOOKED);
+        }
+        assertTrue(cache.size() <= 1_600);
+    }
+
+    @Test
+    void testFailedBookingIsNotCached() {
+        IdempotencyCache cache = new IdempotencyCache(100, Duration.ofMinutes(1));
+        UUID requestId = UUID.randomUUID();
+        assertThrows(IllegalStateException.class, () -> cache.execute(requestId, () -> {
+            throw new IllegalStateException("journal unavailable");
+        }));
+        assertEquals(BookingOutcome.BOOKED, cache.execute(requestId, () -> BookingOutcome.BOOKED));
+    }
+}
@@ -0,0 +1,58 @@
+package com.kayak.hotelsearch.booking;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for StripedReadWriteLock.
+ */
+class StripedReadWriteLockTest {
+
+    @Test
+    void testStripeCountRoundsUpToPowerOfTwo() {
+        assertEquals(1, new StripedReadWriteLock(1).getStripeCount());
+        assertEquals(8, new StripedReadWriteLock(5).getStripeCount());
+        assertEquals(16, new StripedReadWriteLock(16).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new StripedReadWriteLock(0));
+    }
+
+    @Test
+    void testReadersOnDifferentKeysDoNotBlockEachOther() throws Exception {
+        StripedReadWriteLock lock = new StripedReadWriteLock(16);
+        lock.lockRead(101);
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            Thread reader = new Thread(() -> {
+                lock.lockRead(102);
+                lock.unlockRead(102);
+                done.countDown();
+            });
+            reader.start();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            lock.unlockRead(101);
+        }
+    }
+
+    @Test
+    void testWriterWaitsForReaderOnAnyStripe() throws Exception {
+        StripedReadWriteLock lock = new StripedReadWriteLock(16);
+        AtomicBoolean written = new AtomicBoolean();
+        lock.lockRead(517);
+        Thread writer = new Thread(() -> {
+            lock.lockWrite();
+            written.set(true);
+            lock.unlockWrite();
+        });
+        writer.start();
+        writer.join(100);
+        assertFalse(written.get());
+
+        lock.unlockRead(517);
+        writer.join(5_000);
+        assertTrue(written.get());
+    }
+}
@@ -0,0 +1,83 @@
+package com.kayak.hotelsearch.booking;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for TimeOrderedIdGenerator.
+ */
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void testIdsAreVersion7WithTimestamp() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> 1_700_000_000_123L);
+        UUID id = generator.nextId();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(1_700_000_000_123L, TimeOrderedIdGenerator.creationMillis(id));
+    }
+
+    @Test
+    void testIdsSortByCreationTime() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+            if (i % 100 == 0) {
+                clock.incrementAndGet();
+            }
+        }
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void testStaysOrderedWhenSequenceRunsOutOrClockStepsBack() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+        UUID previous = generator.nextId();
+        // More IDs than the sequence holds in one millisecond
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = generator.nextId();
+            assertTrue(previous.compareTo(id) < 0);
+            previous = id;
+        }
+        assertTrue(TimeOrderedIdGenerator.creationMillis(previous) > clock.get());
+
+        clock.addAndGet(-5_000);
+        UUID afterStepBack = generator.nextId();
+        assertTrue(previous.compareTo(afterStepBack) < 0);
+    }
+
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(8 * 20_000, ids.size());
+    }
+
+    @Test
+    void testCreationMillisRejectsRandomIds() {
+        assertThrows(IllegalArgumentException.class,
+            () -> TimeOrderedIdGenerator.creationMillis(RequestIdGenerator.random().nextId()));
+    }
+}
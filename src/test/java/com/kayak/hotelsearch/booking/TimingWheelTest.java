@@ -0,0 +1,87 @@
+package com.kayak.hotelsearch.booking;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for TimingWheel expiry across levels.
+ */
+class TimingWheelTest {
+    private static final long TICK = 1_000;
+
+    @Test
+    void testExpiresInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("late", 70_000 * TICK, 0);
+        wheel.schedule("soon", 3 * TICK, 0);
+        wheel.schedule("middle", 300 * TICK, 0);
+
+        assertEquals(List.of(), wheel.advance(2 * TICK));
+        assertEquals(List.of("soon"), wheel.advance(3 * TICK));
+        // Crossing level boundaries cascades the later timeouts down on time
+        assertEquals(List.of(), wheel.advance(299 * TICK));
+        assertEquals(List.of("middle"), wheel.advance(300 * TICK));
+        assertEquals(List.of(), wheel.advance(69_999 * TICK));
+        assertEquals(List.of("late"), wheel.advance(70_000 * TICK));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        TimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", 10 * TICK, 0);
+        wheel.schedule("kept", 10 * TICK, 0);
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(List.of("kept"), wheel.advance(10 * TICK));
+    }
+
+    @Test
+    void testManyTimeouts() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 0);
+        int count = 300_000;
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(i, (1 + i % 100_000) * TICK, 0);
+        }
+        assertEquals(count, wheel.size());
+
+        // Every timeout comes out exactly once, none before its deadline
+        List<Integer> expired = new ArrayList<>();
+        for (long now = 0; now <= 100_000; now += 500) {
+            for (int value : wheel.advance(now * TICK)) {
+                assertTrue(1 + value % 100_000 <= now);
+                expired.add(value);
+            }
+        }
+        assertEquals(count, expired.size());
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testScheduleAfterIdleGapMeasuresFromNow() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("first", 5 * TICK, 0);
+        assertEquals(List.of("first"), wheel.advance(5 * TICK));
+
+        // Nothing advances the empty wheel for a long while, then a new timeout arrives
+        wheel.schedule("after gap", 10 * TICK, 1_000 * TICK);
+        assertEquals(List.of(), wheel.advance(1_001 * TICK));
+        assertEquals(List.of(), wheel.advance(1_009 * TICK));
+        assertEquals(List.of("after gap"), wheel.advance(1_010 * TICK));
+    }
+
+    @Test
+    void testScheduleBetweenTicksRoundsUpFromNow() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("pending", 100 * TICK, 0);
+        wheel.advance(10 * TICK);
+
+        // Scheduled mid-tick: the deadline is measured from the caller's clock, not the last tick
+        wheel.schedule("mid", 3 * TICK, 10 * TICK + TICK / 2);
+        assertEquals(List.of(), wheel.advance(13 * TICK));
+        assertEquals(List.of("mid"), wheel.advance(14 * TICK));
+    }
+}
@@ -0,0 +1,97 @@
+package com.kayak.hotelsearch.hotel;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.BookingRequest;
+
+/**
+ * Unit tests for ShardedInventory routing and isolation between hotels.
+ */
+class ShardedInventoryTest {
+
+    @Test
+    void testSameRoomNumberInDifferentHotels() {
+        ShardedInventory inventory = new ShardedInventory(4);
+        HotelId first = new HotelId(1);
+        HotelId second = new HotelId(2);
+        inventory.addRoom(first, new Room(101, null, 1));
+        inventory.addRoom(second, new Room(101, null, 1));
+
+        assertEquals(BookingOutcome.BOOKED, inventory.bookRoom(new BookingRequest(first, 101, "Guest 1")));
+        assertEquals(BookingOutcome.SOLD_OUT, inventory.bookRoom(first, 101));
+        // The other hotel's room 101 is untouched
+        assertEquals(BookingOutcome.BOOKED, inventory.bookRoom(second, 101));
+        assertEquals(BookingOutcome.NOT_FOUND, inventory.bookRoom(new HotelId(3), 101));
+
+        assertTrue(inventory.releaseRoom(first, 101));
+        assertFalse(inventory.releaseRoom(first, 102));
+        assertEquals(1, inventory.getRoom(first, 101).getAvailableRooms());
+        assertEquals(2, inventory.getHotelCount());
+    }
+
+    @Test
+    void testRequestsWithoutHotelUseDefault() {
+        ShardedInventory inventory = new ShardedInventory(4);
+        inventory.addRoom(HotelId.DEFAULT, new Room(101, null, 1));
+        assertEquals(List.of(BookingOutcome.BOOKED, BookingOutcome.SOLD_OUT),
+            inventory.bookRooms(List.of(new BookingRequest(101, "Guest 1"), new BookingRequest(101, "Guest 2"))));
+    }
+
+    @Test
+    void testHotelsSpreadAcrossShards() {
+        ShardedInventory inventory = new ShardedInventory(16);
+        int[] hotelsPerShard = new int[16];
+        for (int i = 0; i < 16_000; i++) {
+            hotelsPerShard[inventory.shardIndexOf(new HotelId(i))]++;
+        }
+        for (int hotels : hotelsPerShard) {
+            assertTrue(hotels > 800 && hotels < 1_200, "Uneven shard: " + hotels);
+        }
+    }
+
+    @Test
+    void testConcurrentBookingsAcrossHotels() throws Exception {
+        ShardedInventory inventory = new ShardedInventory(8);
+        for (int hotel = 0; hotel < 100; hotel++) {
+            inventory.addRoom(new HotelId(hotel), new Room(101, null, 50));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                int booked = 0;
+                for (int i = 0; i < 1_000; i++) {
+                    if (inventory.bookRoom(new HotelId(i % 100), 101) == BookingOutcome.BOOKED) {
+                        booked++;
+                    }
+                }
+                return booked;
+            }));
+        }
+        int booked = 0;
+        for (Future<Integer> result : results) {
+            booked += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // 8,000 attempts against 100 hotels with 50 units each
+        assertEquals(5_000, booked);
+        for (int hotel = 0; hotel < 100; hotel++) {
+            assertEquals(0, inventory.getRoom(new HotelId(hotel), 101).getAvailableRooms());
+        }
+    }
+
+    @Test
+    void testInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedInventory(6));
+    }
+}
@@ -0,0 +1,128 @@
+package com.kayak.hotelsearch.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+
+/**
+ * Unit tests for the BookingHttpServer endpoints.
+ */
+class BookingHttpServerTest {
+    private RoomDatabaseAccessService service;
+    private BookingHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new RoomDatabaseAccessService();
+        service.addRoom(new Room(101, null, 1));
+        service.addRoom(new Room(102, null, 100));
+        server = new BookingHttpServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testBookAndRelease() throws Exception {
+        HttpResponse<String> booked = post("/bookings", "{\"roomNumber\": 101, \"guest\": \"Guest 1\"}");
+        assertEquals(200, booked.statusCode());
+        assertTrue(booked.body().contains("\"outcome\":\"BOOKED\""));
+        assertEquals(409, post("/bookings", "{\"roomNumber\": 101}").statusCode());
+        assertEquals(404, post("/bookings", "{\"roomNumber\": 999}").statusCode());
+
+        assertEquals(200, post("/releases", "{\"roomNumber\": 101}").statusCode());
+        assertEquals(1, service.getRoom(101).getAvailableRooms());
+        assertEquals(404, post("/releases", "{\"roomNumber\": 999}").statusCode());
+    }
+
+    @Test
+    void testGetRoomAndAvailability() throws Exception {
+        HttpResponse<String> room = get("/rooms/102");
+        assertEquals(200, room.statusCode());
+        assertTrue(room.body().contains("\"availableRooms\":100"));
+        assertEquals(404, get("/rooms/999").statusCode());
+
+        post("/bookings", "{\"roomNumber\": 101}");
+        HttpResponse<String> available = get("/availability");
+        assertTrue(available.body().contains("\"roomNumber\":102"));
+        assertFalse(available.body().contains("\"roomNumber\":101"));
+
+        HttpResponse<String> stay = get("/availability?roomNumber=102&checkIn=2030-01-01&checkOut=2030-01-03");
+        assertEquals(200, stay.statusCode());
+        assertTrue(stay.body().contains("\"available\":true"));
+    }
+
+    @Test
+    void testBadRequests() throws Exception {
+        assertEquals(400, post("/bookings", "{\"guest\": \"No room\"}").statusCode());
+        assertEquals(400, post("/bookings", "not json").statusCode());
+        assertEquals(400, get("/rooms/abc").statusCode());
+        assertEquals(400, get("/availability?roomNumber=102&checkIn=2030-01-03&checkOut=2030-01-01").statusCode());
+        assertEquals(405, get("/bookings").statusCode());
+    }
+
+    @Test
+    void testOtherHotelsAreRejected() throws Exception {
+        HttpResponse<String> booked = post("/bookings", "{\"hotelId\": 7, \"roomNumber\": 101}");
+        assertEquals(400, booked.statusCode());
+        assertTrue(booked.body().contains("Unknown hotel: 7"));
+        assertEquals(400, post("/releases", "{\"hotelId\": 7, \"roomNumber\": 101}").statusCode());
+        assertEquals(1, service.getRoom(101).getAvailableRooms());
+
+        // The default hotel can still be named explicitly
+        assertEquals(200, post("/bookings", "{\"hotelId\": 0, \"roomNumber\": 101}").statusCode());
+    }
+
+    @Test
+    void testConcurrentBookingsAndMetrics() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(postRequest("/bookings", "{\"roomNumber\": 102}"),
+                HttpResponse.BodyHandlers.ofString()));
+        }
+        long booked = responses.stream().map(CompletableFuture::join).filter(r -> r.statusCode() == 200).count();
+
+        assertEquals(100, booked);
+        assertEquals(0, service.getRoom(102).getAvailableRooms());
+        assertEquals(200, server.getRequestCount("book"));
+        assertTrue(server.getLatencyPercentile("book", 0.99) > 0);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return client.send(postRequest(path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest postRequest(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,224 @@
+package com.kayak.hotelsearch.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+
+/**
+ * Unit tests for the booking journal and crash recovery.
+ */
+class BookingJournalTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void testAppendAndReplay() throws IOException {
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.ALWAYS)) {
+            assertEquals(0, journal.append(JournalRecord.Type.BOOK, 101, 2));
+            assertEquals(1, journal.appendStay(JournalRecord.Type.BOOK_STAY, 103, 20_000, 20_003));
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            journal.replay(records::add);
+            assertEquals(2, journal.getNextSequence());
+        }
+
+        assertEquals(2, records.size());
+        assertEquals(JournalRecord.Type.BOOK, records.get(0).getType());
+        assertEquals(2, records.get(0).getUnits());
+        assertEquals(20_003, records.get(1).getCheckOutDay());
+    }
+
+    @Test
+    void testSegmentsRollAndCompact() throws IOException {
+        // Four records per segment
+        try (BookingJournal journal = new BookingJournal(journalDir, BookingJournal.RECORD_SIZE * 4,
+                FsyncPolicy.NEVER, 10)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(JournalRecord.Type.BOOK, 101, 1);
+            }
+            assertEquals(3, BookingJournal.listSegments(journalDir).size());
+            assertEquals(10, journal.replay(record -> { }));
+            assertEquals(6, journal.replayFrom(4, record -> { }));
+
+            // Segment [0, 4) is fully below 5; segment [4, 8) is not
+            assertEquals(1, journal.deleteSegmentsBefore(5));
+            assertEquals(6, journal.replay(record -> { }));
+        }
+    }
+
+    @Test
+    void testTornWriteIsDiscarded() throws IOException {
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.ALWAYS)) {
+            journal.append(JournalRecord.Type.BOOK, 101, 1);
+            journal.append(JournalRecord.Type.BOOK, 102, 1);
+        }
+
+        // Corrupt the second record's checksum as a crash mid-write would
+        Path segment = BookingJournal.listSegments(journalDir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), BookingJournal.RECORD_SIZE + 28);
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.replay(record -> { }));
+            // The next append reuses the torn record's slot and sequence
+            assertEquals(1, journal.append(JournalRecord.Type.BOOK, 103, 1));
+            assertEquals(2, journal.replay(record -> { }));
+        }
+    }
+
+    @Test
+    void testRecordsSurvivingPastATornWriteAreNotReplayed() throws IOException {
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.ALWAYS)) {
+            journal.append(JournalRecord.Type.BOOK, 101, 1);
+            journal.append(JournalRecord.Type.BOOK, 102, 1);
+            journal.append(JournalRecord.Type.BOOK, 103, 1);
+        }
+
+        // The middle record's page was lost but the one after it reached the disk
+        Path segment = BookingJournal.listSegments(journalDir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), BookingJournal.RECORD_SIZE + 28);
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.getNextSequence());
+            // Appending one record must not bring the stale third record back to life
+            assertEquals(1, journal.append(JournalRecord.Type.BOOK, 104, 1));
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            journal.replay(records::add);
+            assertEquals(2, journal.getNextSequence());
+        }
+        assertEquals(List.of(101, 104), records.stream().map(JournalRecord::getRoomNumber).toList());
+    }
+
+    @Test
+    void testOutOfSequenceRecordEndsTheSegment() throws IOException {
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.ALWAYS)) {
+            journal.append(JournalRecord.Type.BOOK, 101, 1);
+        }
+
+        // A record with a valid checksum, two slots past a torn one, claiming a later sequence
+        Path segment = BookingJournal.listSegments(journalDir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(record(9, 102), BookingJournal.RECORD_SIZE);
+            channel.write(record(2, 103), 2 * BookingJournal.RECORD_SIZE);
+        }
+
+        assertEquals(1, BookingJournal.replay(journalDir, 0, record -> { }));
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            assertEquals(1, journal.getNextSequence());
+            journal.append(JournalRecord.Type.BOOK, 104, 1);
+            journal.append(JournalRecord.Type.BOOK, 105, 1);
+            assertEquals(3, journal.replay(record -> { }));
+        }
+    }
+
+    @Test
+    void testServiceRecoversBookings() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.ALWAYS)) {
+            RoomDatabaseAccessService service = new RoomDatabaseAccessService(journal);
+            service.initializeRooms();
+
+            // Group commit under concurrent writers
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> service.bookRoom(101));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+            service.releaseRoom(101);
+            assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(2)));
+        }
+
+        // A fresh service over the same journal sees the same state
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.ALWAYS)) {
+            RoomDatabaseAccessService recovered = new RoomDatabaseAccessService(journal);
+            recovered.initializeRooms();
+            assertEquals(6, recovered.recover());
+
+            assertEquals(2, recovered.getRoom(101).getAvailableRooms()); // 5 - 4 + 1
+            assertEquals(1, recovered.getRoom(103).getCalendar().getStayCount());
+        }
+    }
+
+    @Test
+    void testConcurrentBookAndReleaseReplayInOrder() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        int liveUnits;
+        int liveStays;
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            RoomDatabaseAccessService service = new RoomDatabaseAccessService(journal);
+            service.addRoom(new Room(101, null, 1));
+
+            // One unit bounced between threads: every BOOK must reach the journal after the
+            // RELEASE that freed it, or replay would clamp it and end up with a spare unit
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int t = 0; t < 4; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        if (service.bookRoom(101)) {
+                            service.releaseRoom(101);
+                        }
+                        if (service.bookRoom(101, checkIn, checkIn.plusDays(2))) {
+                            service.releaseRoom(101, checkIn, checkIn.plusDays(2));
+                        }
+                    }
+                    service.bookRoom(101);
+                    service.bookRoom(101, checkIn, checkIn.plusDays(2));
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+            liveUnits = service.getRoom(101).getAvailableRooms();
+            liveStays = service.getRoom(101).getCalendar().getStayCount();
+            assertEquals(0, liveUnits);
+            assertEquals(1, liveStays);
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            RoomDatabaseAccessService recovered = new RoomDatabaseAccessService(journal);
+            recovered.addRoom(new Room(101, null, 1));
+            recovered.recover();
+            assertEquals(liveUnits, recovered.getRoom(101).getAvailableRooms());
+            assertEquals(liveStays, recovered.getRoom(101).getCalendar().getStayCount());
+        }
+    }
+
+    /**
+     * Encodes a valid BOOK record of one unit, as the journal would write it.
+     */
+    private static ByteBuffer record(long sequence, int roomNumber) {
+        ByteBuffer buffer = ByteBuffer.allocate(BookingJournal.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(0, sequence);
+        buffer.put(8, JournalRecord.Type.BOOK.code());
+        buffer.putInt(12, roomNumber);
+        buffer.putInt(16, 1);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, BookingJournal.RECORD_SIZE - 4));
+        buffer.putInt(28, (int) crc.getValue());
+        return buffer;
+    }
+}
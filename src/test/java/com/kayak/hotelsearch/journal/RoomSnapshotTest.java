@@ -0,0 +1,96 @@
+package com.kayak.hotelsearch.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+import com.kayak.hotelsearch.room.RoomType;
+
+/**
+ * Unit tests for room snapshots and journal compaction.
+ */
+class RoomSnapshotTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Room room = new Room(201, RoomType.DELUXE, 249.0, true);
+        room.bookStay(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 4));
+        Room guestRoom = new Room(1500, "Jane Doe", 3);
+        guestRoom.bookRoom();
+
+        Path file = journalDir.resolve("snapshot.bin");
+        new RoomSnapshot(42, List.of(RoomSnapshot.Entry.of(room), RoomSnapshot.Entry.of(guestRoom))).writeTo(file);
+        RoomSnapshot loaded = RoomSnapshot.readFrom(file);
+
+        assertEquals(42, loaded.getJournalSequence());
+        Room restored = loaded.getEntries().get(0).toRoom();
+        assertEquals(RoomType.DELUXE, restored.getRoomType());
+        assertEquals(249.0, restored.getPrice());
+        assertFalse(restored.isAvailable(LocalDate.of(2030, 1, 2), LocalDate.of(2030, 1, 3)));
+        Room restoredGuestRoom = loaded.getEntries().get(1).toRoom();
+        assertEquals("Jane Doe", restoredGuestRoom.getCurrentGuest());
+        assertEquals(2, restoredGuestRoom.getAvailableRooms());
+    }
+
+    @Test
+    void testCorruptSnapshotIsRejected() throws IOException {
+        Path file = journalDir.resolve("snapshot.bin");
+        new RoomSnapshot(0, List.of(RoomSnapshot.Entry.of(new Room(101)))).writeTo(file);
+
+        // Flip a byte inside the room data
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {7}), 20);
+        }
+        assertThrows(IOException.class, () -> RoomSnapshot.readFrom(file));
+    }
+
+    @Test
+    void testRecoverFromSnapshotAndCompactedJournal() throws IOException {
+        LocalDate checkIn = LocalDate.now().plusDays(5);
+        // Four records per segment
+        try (BookingJournal journal = new BookingJournal(journalDir, BookingJournal.RECORD_SIZE * 4,
+                FsyncPolicy.NEVER, 10)) {
+            RoomDatabaseAccessService service = new RoomDatabaseAccessService(journal);
+            service.initializeRooms();
+            for (int i = 0; i < 9; i++) {
+                service.bookRoom(101 + i % 2);
+            }
+
+            SnapshotManager snapshots = new SnapshotManager(journal, service::captureSnapshot);
+            snapshots.takeSnapshot();
+            // Segment [0, 4) is covered by the snapshot at sequence 8; the tail segment is kept
+            assertEquals(1, BookingJournal.listSegments(journalDir).size());
+
+            service.releaseRoom(101);
+            assertTrue(service.bookRoom(103, checkIn, checkIn.plusDays(2)));
+            snapshots.close();
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, FsyncPolicy.NEVER)) {
+            RoomDatabaseAccessService recovered = new RoomDatabaseAccessService(journal);
+            // Only the two records written after the snapshot are replayed
+            assertEquals(2, recovered.recover(SnapshotManager.loadLatest(journalDir)));
+
+            assertEquals(1, recovered.getRoom(101).getAvailableRooms()); // 5 - 5 + 1
+            assertEquals(0, recovered.getRoom(102).getAvailableRooms());
+            assertEquals(1, recovered.getRoom(103).getCalendar().getStayCount());
+            assertEquals("Suite", recovered.getRoom(103).getCurrentGuest());
+        }
+    }
+
+    @Test
+    void testLoadLatestWithoutSnapshot() throws IOException {
+        assertNull(SnapshotManager.loadLatest(journalDir));
+    }
+}
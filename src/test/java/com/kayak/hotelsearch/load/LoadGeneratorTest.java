@@ -0,0 +1,118 @@
+package com.kayak.hotelsearch.load;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.booking.BookingRequest;
+
+/**
+ * Unit tests for the load generator and its request sources.
+ */
+class LoadGeneratorTest {
+
+    @Test
+    void testSyntheticSourceRateAndSkew() {
+        SyntheticRequestSource source = new SyntheticRequestSource(1_000, 10_000, 100, 100, 1.2, 30, 3, 42);
+        int[] perRoom = new int[100];
+        ScheduledRequest request;
+        ScheduledRequest last = null;
+        while ((request = source.next()) != null) {
+            perRoom[request.getRequest().getRoomNumber() - 100]++;
+            assertTrue(request.getCheckIn().isAfter(LocalDate.now()));
+            long nights = request.getCheckOut().toEpochDay() - request.getCheckIn().toEpochDay();
+            assertTrue(nights >= 1 && nights <= 3);
+            last = request;
+        }
+
+        // 10,000 requests at 1,000/s take about ten seconds
+        assertEquals(10.0, last.getSendAtNanos() / 1e9, 0.5);
+        // The first rank gets far more traffic than the last
+        assertTrue(perRoom[0] > 20 * perRoom[99]);
+    }
+
+    @Test
+    void testLogReplayRecoversServiceOutcomes(@TempDir Path directory) throws IOException {
+        Path log = directory.resolve("booking-system.log");
+        Files.writeString(log, String.join("\n",
+            "2025-05-21 12:42:16.691 [main] INFO  c.k.h.RoomDatabaseAccessService - Successfully booked room 101",
+            "2025-05-21 12:42:16.693 [main] INFO  c.k.h.RoomDatabaseAccessService - Released room 101",
+            "2025-05-21 12:42:16.698 [main] WARN  c.k.h.RoomDatabaseAccessService - Room 999 not found",
+            "2025-05-21 14:42:17.698 [pool-1-thread-1] WARN  c.k.h.RoomDatabaseAccessService - "
+                + "Room 102 has no unit free from 2030-01-01 to 2030-01-03",
+            ""));
+
+        List<ScheduledRequest> requests = readAll(new LogReplaySource(log, 2.0, Duration.ofSeconds(1)));
+        assertEquals(3, requests.size());
+        assertEquals(List.of(101, 999, 102),
+            requests.stream().map(request -> request.getRequest().getRoomNumber()).toList());
+        // The two-hour idle gap is cut to a second, then everything is replayed twice as fast
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1_007) / 2, requests.get(2).getSendAtNanos());
+        assertEquals(LocalDate.of(2030, 1, 1), requests.get(2).getCheckIn());
+    }
+
+    @Test
+    void testLogReplayPrefersMainOutcomes(@TempDir Path directory) throws IOException {
+        Path log = directory.resolve("booking-system.log");
+        Files.writeString(log, String.join("\n",
+            "2025-05-21 12:42:16.691 [pool-1-thread-1] INFO  c.k.h.RoomDatabaseAccessService - Successfully booked room 101",
+            "2025-05-21 12:42:16.692 [pool-1-thread-1] INFO  c.k.h.Main - Successfully processed booking: Room 101 for Guest 1",
+            "2025-05-21 12:42:16.695 [pool-1-thread-2] WARN  c.k.h.Main - Failed to process booking: Room 999 for Guest 2",
+            ""));
+
+        List<ScheduledRequest> requests = readAll(new LogReplaySource(log, 1.0, Duration.ofSeconds(1)));
+        assertEquals(2, requests.size());
+        assertEquals("Guest 2", requests.get(1).getRequest().getGuest());
+    }
+
+    @Test
+    void testLatencyIsMeasuredFromScheduledSendTime() throws Exception {
+        // The source stalls for 50ms before the second request, so it goes out late
+        RequestSource source = new RequestSource() {
+            private int sent;
+
+            @Override
+            public ScheduledRequest next() {
+                if (sent == 2) {
+                    return null;
+                }
+                if (sent == 1) {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new ScheduledRequest(sent++, new BookingRequest(101, null));
+            }
+        };
+
+        LoadReport report = new LoadGenerator(request -> BookingOutcome.BOOKED).run(source);
+
+        assertEquals(2, report.getRequestCount());
+        assertEquals(2, report.getOutcomeCount(BookingOutcome.BOOKED));
+        assertTrue(report.getMaxSendLag() >= 200);
+        assertTrue(report.getMaxLatency() >= 200);
+        // Measured from the actual send, the stall disappears
+        assertTrue(report.getUncorrectedLatencyPercentile(100) < 200);
+    }
+
+    private static List<ScheduledRequest> readAll(RequestSource source) throws IOException {
+        List<ScheduledRequest> requests = new ArrayList<>();
+        try (source) {
+            ScheduledRequest request;
+            while ((request = source.next()) != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+}
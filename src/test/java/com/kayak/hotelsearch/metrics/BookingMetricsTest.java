@@ -0,0 +1,52 @@
+package com.kayak.hotelsearch.metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.booking.BookingOutcome;
+import com.kayak.hotelsearch.room.RoomType;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for BookingMetrics latency percentiles and windows.
+ */
+class BookingMetricsTest {
+
+    @Test
+    void testPercentilesExposeTheTail() {
+        BookingMetrics metrics = new BookingMetrics();
+        // 990 fast bookings and 10 that sat in a retry sleep
+        for (int i = 0; i < 990; i++) {
+            metrics.recordBookingLatency(TimeUnit.MILLISECONDS.toNanos(1), BookingOutcome.BOOKED, RoomType.SINGLE, 0);
+        }
+        for (int i = 0; i < 10; i++) {
+            metrics.recordBookingLatency(TimeUnit.MILLISECONDS.toNanos(100), BookingOutcome.BOOKED, RoomType.SINGLE, 3);
+        }
+
+        assertEquals(1.0, metrics.getLatencyPercentile(LatencyWindow.ONE_MINUTE, 0.5), 0.1);
+        assertEquals(100.0, metrics.getLatencyPercentile(LatencyWindow.ONE_MINUTE, 0.999), 5.0);
+        // The retried bookings are tagged separately
+        assertEquals(100.0, metrics.getLatencyPercentile(LatencyWindow.ONE_MINUTE, 0.5,
+            BookingOutcome.BOOKED, RoomType.SINGLE, 3), 5.0);
+        assertEquals(0.0, metrics.getLatencyPercentile(LatencyWindow.ONE_MINUTE, 0.5,
+            BookingOutcome.SOLD_OUT, RoomType.SINGLE, 0));
+        assertEquals(1_000, metrics.getBookingCount(BookingOutcome.BOOKED));
+    }
+
+    @Test
+    void testWindowsSlideWithoutResettingCounts() {
+        MockClock clock = new MockClock();
+        BookingMetrics metrics = new BookingMetrics(new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock));
+        metrics.recordBookingLatency(TimeUnit.MILLISECONDS.toNanos(20), BookingOutcome.ERROR, null, 0);
+        assertTrue(metrics.getLatencyPercentile(LatencyWindow.ONE_MINUTE, 0.99) > 0);
+
+        // Two minutes later the booking has left the 1-minute window but not the 5-minute one
+        clock.add(Duration.ofMinutes(2));
+        assertEquals(0.0, metrics.getLatencyPercentile(LatencyWindow.ONE_MINUTE, 0.99));
+        assertTrue(metrics.getLatencyPercentile(LatencyWindow.FIVE_MINUTES, 0.99) > 0);
+        assertEquals(1, metrics.getBookingCount(BookingOutcome.ERROR));
+    }
+}
@@ -0,0 +1,59 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Unit tests for AvailabilityIndex searches and incremental updates.
+ */
+class AvailabilityIndexTest {
+
+    @Test
+    void testSearchReturnsPriceOrderWithPaging() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        index.update(new Room(201, RoomType.DOUBLE, 240.0, true));
+        index.update(new Room(202, RoomType.DOUBLE, 180.0, true));
+        index.update(new Room(203, RoomType.DOUBLE, 180.0, true));
+        index.update(new Room(204, RoomType.DOUBLE, 300.0, true));
+        index.update(new Room(205, RoomType.SINGLE, 90.0, true));
+        index.update(new Room(206, RoomType.DOUBLE, 120.0, false));
+
+        // Unavailable, over-budget and other-type rooms are excluded; equal prices order by number
+        List<Room> all = index.search(RoomType.DOUBLE, 0, 250, 0, 10);
+        assertEquals(List.of(202, 203, 201), all.stream().map(Room::getRoomNumber).toList());
+
+        List<Room> secondPage = index.search(RoomType.DOUBLE, 0, 250, 2, 2);
+        assertEquals(1, secondPage.size());
+        assertEquals(201, secondPage.get(0).getRoomNumber());
+
+        // Both price bounds are inclusive
+        assertEquals(2, index.search(RoomType.DOUBLE, 180, 180, 0, 10).size());
+    }
+
+    @Test
+    void testIndexFollowsBookingsAndReleases() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        Room room = new Room(301, RoomType.SUITE, 600.0, true);
+        index.update(room);
+        assertEquals(1, index.count(RoomType.SUITE));
+
+        assertTrue(room.bookRoom());
+        index.update(room);
+        assertEquals(0, index.count(RoomType.SUITE));
+
+        room.releaseRoom();
+        index.update(room);
+        assertEquals(1, index.search(RoomType.SUITE, 0, 1_000, 0, 10).size());
+
+        index.remove(room);
+        assertEquals(0, index.count(RoomType.SUITE));
+    }
+
+    @Test
+    void testInvalidPaging() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        assertThrows(IllegalArgumentException.class, () -> index.search(RoomType.SINGLE, 0, 100, -1, 10));
+    }
+}
@@ -0,0 +1,125 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Unit tests for AvailabilityQueryExecutor, checked against a sequential scan.
+ */
+class AvailabilityQueryExecutorTest {
+    private static final LocalDate CHECK_IN = LocalDate.of(2030, 3, 1);
+
+    private AvailabilityQueryExecutor executor;
+    private RoomTable table;
+
+    @BeforeEach
+    void setUp() {
+        // Tiny leaves force deep splitting even on a small table
+        executor = new AvailabilityQueryExecutor(4, 8);
+        table = new RoomTable();
+        SplittableRandom random = new SplittableRandom(11);
+        RoomType[] types = RoomType.values();
+        for (int i = 0; i < 5_000; i++) {
+            int roomNumber = 100 + i * 3;
+            Room room = new Room(roomNumber, types[random.nextInt(types.length)], 50 + random.nextInt(40) * 10,
+                null, 1 + random.nextInt(3));
+            if (random.nextInt(4) == 0) {
+                room.bookRooms(room.getAvailableRooms());
+            }
+            if (random.nextInt(3) == 0) {
+                long day = CHECK_IN.toEpochDay() + random.nextInt(10);
+                room.getCalendar().restore(0, day, day + 3);
+            }
+            table.put(room);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void testMatchesSequentialScan() {
+        List<RoomQuery> queries = List.of(
+            RoomQuery.any(),
+            RoomQuery.any().withType(RoomType.SUITE),
+            RoomQuery.any().withPrice(100, 200).withMinUnits(2),
+            RoomQuery.any().withType(RoomType.DOUBLE).withStay(CHECK_IN.plusDays(2), CHECK_IN.plusDays(9)),
+            RoomQuery.any().withStay(CHECK_IN, CHECK_IN.plusDays(14)).withMinUnits(2));
+        for (RoomQuery query : queries) {
+            for (int limit : new int[] {1, 10, 100_000}) {
+                assertEquals(sequentialCheapest(query, limit), executor.findCheapest(table, query, limit));
+            }
+        }
+    }
+
+    @Test
+    void testResultIsCheapestFirstWithTiesByRoomNumber() {
+        RoomTable small = new RoomTable();
+        small.put(new Room(103, RoomType.SINGLE, 80.0, true));
+        small.put(new Room(101, RoomType.SINGLE, 80.0, true));
+        small.put(new Room(102, RoomType.SINGLE, 60.0, true));
+        small.put(new Room(104, RoomType.SINGLE, 40.0, false));
+        small.put(new Room(20_000, RoomType.SINGLE, 70.0, true));
+
+        List<Room> cheapest = executor.findCheapest(small, RoomQuery.any(), 3);
+        assertEquals(List.of(102, 20_000, 101), cheapest.stream().map(Room::getRoomNumber).toList());
+        assertTrue(executor.findCheapest(small, RoomQuery.any(), 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> executor.findCheapest(small, RoomQuery.any(), -1));
+    }
+
+    @Test
+    void testDefaultLeafSizeSplitsTheDenseRange() throws Exception {
+        assertEquals(56, AvailabilityQueryExecutor.leafSizeFor(900, 4));
+        assertEquals(1, AvailabilityQueryExecutor.leafSizeFor(3, 4));
+
+        // Only the dense 100-999 range, each room slow enough that idle workers steal leaves
+        RoomTable dense = new RoomTable();
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        for (int roomNumber = RoomTable.MIN_DENSE_ROOM; roomNumber <= RoomTable.MAX_DENSE_ROOM; roomNumber++) {
+            dense.put(new Room(roomNumber, RoomType.SINGLE, 100.0, true) {
+                @Override
+                public double getPrice() {
+                    workers.add(Thread.currentThread());
+                    LockSupport.parkNanos(200_000);
+                    return super.getPrice();
+                }
+            });
+        }
+        try (AvailabilityQueryExecutor defaults = new AvailabilityQueryExecutor(4)) {
+            assertEquals(10, defaults.findCheapest(dense, RoomQuery.any(), 10).size());
+        }
+        assertTrue(workers.size() > 1, "Only " + workers + " scanned the table");
+    }
+
+    @Test
+    void testQueryValidation() {
+        assertThrows(IllegalArgumentException.class, () -> RoomQuery.any().withPrice(200, 100));
+        assertThrows(IllegalArgumentException.class, () -> RoomQuery.any().withMinUnits(0));
+        assertThrows(IllegalArgumentException.class, () -> RoomQuery.any().withStay(CHECK_IN, CHECK_IN));
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityQueryExecutor(0));
+    }
+
+    private List<Room> sequentialCheapest(RoomQuery query, int limit) {
+        List<Room> matches = new ArrayList<>();
+        table.forEach(room -> {
+            if (query.matches(room)) {
+                matches.add(room);
+            }
+        });
+        matches.sort(Comparator.comparingDouble(Room::getPrice).thenComparingInt(Room::getRoomNumber));
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Unit tests for the read-through CachingRoomStore.
+ */
+class CachingRoomStoreTest {
+
+    @Test
+    void testReadThroughAndWriteThrough() {
+        SimulatedRoomStore database = new SimulatedRoomStore(Duration.ZERO);
+        database.store(new Room(101, RoomType.SINGLE, 100.0, true));
+        CachingRoomStore cache = new CachingRoomStore(database, 100);
+
+        Room room = cache.load(101);
+        assertSame(room, cache.load(101));
+        assertNull(cache.load(102));
+        assertEquals(2, database.getLoadCount());
+        assertEquals(1.0 / 3, cache.getHitRate(), 0.001);
+
+        // A write goes to the database and replaces the cached copy
+        Room replacement = new Room(101, RoomType.DOUBLE, 150.0, true);
+        assertSame(room, cache.store(replacement));
+        assertSame(replacement, cache.load(101));
+        assertEquals(2, database.getLoadCount());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        SimulatedRoomStore database = new SimulatedRoomStore(Duration.ofMillis(50));
+        database.store(new Room(101));
+        CachingRoomStore cache = new CachingRoomStore(database, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Room>> rooms = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            rooms.add(executor.submit(() -> cache.load(101)));
+        }
+        for (Future<Room> room : rooms) {
+            assertNotNull(room.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(1, database.getLoadCount());
+        assertTrue(cache.getAverageLoadTime() >= 50);
+    }
+
+    @Test
+    void testFrequentRoomsSurviveAScan() {
+        SimulatedRoomStore database = new SimulatedRoomStore(Duration.ZERO);
+        for (int i = 0; i < 1_000; i++) {
+            database.store(new Room(1_000 + i));
+        }
+        CachingRoomStore cache = new CachingRoomStore(database, 100);
+
+        // Rooms 1000-1049 are popular
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.load(1_000 + i);
+            }
+        }
+        // A one-off scan over every other room must not push them out
+        for (int i = 50; i < 1_000; i++) {
+            cache.load(1_000 + i);
+        }
+        long loadsBefore = database.getLoadCount();
+        for (int i = 0; i < 50; i++) {
+            cache.load(1_000 + i);
+        }
+        assertEquals(loadsBefore, database.getLoadCount());
+        assertTrue(cache.size() <= 100);
+    }
+}
@@ -0,0 +1,108 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.time.LocalDate;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Unit tests for OccupancyIndex searches and updates.
+ */
+class OccupancyIndexTest {
+    private static final long DAY = LocalDate.of(2030, 6, 1).toEpochDay();
+
+    @Test
+    void testFindAvailableExcludesRoomsFullOnAnyNight() {
+        OccupancyIndex index = new OccupancyIndex();
+        Room single = new Room(100, RoomType.SINGLE, 80.0, true);
+        Room suite = new Room(200, RoomType.SUITE, 500.0, true);
+        index.addRoom(single);
+        index.addRoom(suite);
+
+        single.getCalendar().book(DAY + 5, DAY + 6);
+        index.update(single, DAY + 5, DAY + 6);
+        assertArrayEquals(new int[] {200}, index.findAvailable(DAY, DAY + 14, null));
+        assertArrayEquals(new int[] {100, 200}, index.findAvailable(DAY, DAY + 5, null));
+        assertArrayEquals(new int[] {100, 200}, index.findAvailable(DAY + 6, DAY + 14, null));
+        assertArrayEquals(new int[0], index.findAvailable(DAY, DAY + 14, RoomType.SINGLE));
+        assertArrayEquals(new int[0], index.findAvailable(DAY, DAY + 14, RoomType.DOUBLE));
+
+        single.getCalendar().release(DAY + 5, DAY + 6);
+        index.update(single, DAY + 5, DAY + 6);
+        assertArrayEquals(new int[] {100}, index.findAvailable(DAY, DAY + 14, RoomType.SINGLE));
+        assertEquals(0, index.getIndexedNightCount());
+    }
+
+    @Test
+    void testMultiUnitRoomNeedsOneUnitForWholeStay() {
+        OccupancyIndex index = new OccupancyIndex();
+        Room room = new Room(300, RoomType.DOUBLE, 150.0, null, 2);
+        index.addRoom(room);
+        room.getCalendar().restore(0, DAY, DAY + 2);
+        room.getCalendar().restore(1, DAY + 2, DAY + 4);
+        index.update(room, DAY, DAY + 4);
+
+        // Every night has a free unit, but not the same one
+        assertArrayEquals(new int[0], index.findAvailable(DAY, DAY + 4, null));
+        assertArrayEquals(new int[] {300}, index.findAvailable(DAY, DAY + 2, null));
+    }
+
+    @Test
+    void testAddRoomIndexesExistingStaysAndReplaces() {
+        OccupancyIndex index = new OccupancyIndex();
+        Room booked = new Room(400, RoomType.SINGLE, 80.0, true);
+        booked.getCalendar().book(DAY, DAY + 3);
+        index.addRoom(booked);
+        assertArrayEquals(new int[0], index.findAvailable(DAY + 1, DAY + 2, null));
+
+        index.addRoom(new Room(400, RoomType.DOUBLE, 120.0, true));
+        assertArrayEquals(new int[] {400}, index.findAvailable(DAY + 1, DAY + 2, RoomType.DOUBLE));
+        assertArrayEquals(new int[0], index.findAvailable(DAY + 1, DAY + 2, RoomType.SINGLE));
+        assertThrows(IllegalArgumentException.class, () -> index.findAvailable(DAY, DAY, null));
+        assertThrows(IllegalArgumentException.class, () -> index.addRoom(new Room(-1)));
+    }
+
+    @Test
+    void testNightsSharingASlotAreKeptApart() {
+        OccupancyIndex index = new OccupancyIndex();
+        Room early = new Room(500, RoomType.SINGLE, 80.0, true);
+        Room late = new Room(501, RoomType.SINGLE, 80.0, true);
+        index.addRoom(early);
+        index.addRoom(late);
+
+        // 1024 nights apart lands in the same ring slot; so does a night before the epoch
+        early.getCalendar().book(DAY, DAY + 1);
+        index.update(early, DAY, DAY + 1);
+        late.getCalendar().book(DAY + 1024, DAY + 1025);
+        index.update(late, DAY + 1024, DAY + 1025);
+        early.getCalendar().book(-1024 + DAY % 1024, -1023 + DAY % 1024);
+        index.update(early, -1024 + DAY % 1024, -1023 + DAY % 1024);
+
+        assertArrayEquals(new int[] {501}, index.findAvailable(DAY, DAY + 1, null));
+        assertArrayEquals(new int[] {500}, index.findAvailable(DAY + 1024, DAY + 1025, null));
+        assertArrayEquals(new int[] {501}, index.findAvailable(-1024 + DAY % 1024, -1023 + DAY % 1024, null));
+        assertEquals(3, index.getIndexedNightCount());
+
+        late.getCalendar().release(DAY + 1024, DAY + 1025);
+        index.update(late, DAY + 1024, DAY + 1025);
+        assertArrayEquals(new int[] {500, 501}, index.findAvailable(DAY + 1024, DAY + 1025, null));
+        assertEquals(2, index.getIndexedNightCount());
+    }
+
+    @Test
+    void testOnlyMultiUnitSurvivorsAreChecked() {
+        OccupancyIndex index = new OccupancyIndex();
+        Room single = new Room(600, RoomType.SUITE, 500.0, true);
+        Room multi = new Room(601, RoomType.DOUBLE, 150.0, null, 2);
+        index.addRoom(single);
+        index.addRoom(multi);
+        multi.getCalendar().restore(0, DAY, DAY + 2);
+        multi.getCalendar().restore(1, DAY + 2, DAY + 4);
+        index.update(multi, DAY, DAY + 4);
+
+        // The multi-unit room has a free unit every night, so only its calendar rules it out
+        assertArrayEquals(new int[] {600}, index.findAvailable(DAY, DAY + 4, null));
+        assertArrayEquals(new int[0], index.findAvailable(DAY, DAY + 4, RoomType.DOUBLE));
+        assertArrayEquals(new int[] {600, 601}, index.findAvailable(DAY + 1, DAY + 2, null));
+    }
+}
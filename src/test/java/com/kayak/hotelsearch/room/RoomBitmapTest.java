@@ -0,0 +1,109 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Unit tests for RoomBitmap, checked against a BitSet across sparse and dense chunks.
+ */
+class RoomBitmapTest {
+
+    @Test
+    void testAddRemoveAndContains() {
+        RoomBitmap bitmap = new RoomBitmap();
+        bitmap.add(5);
+        bitmap.add(70_000);
+        bitmap.add(5);
+        assertTrue(bitmap.contains(5));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(6));
+        assertEquals(2, bitmap.cardinality());
+
+        bitmap.remove(5);
+        bitmap.remove(12_345);
+        assertArrayEquals(new int[] {70_000}, bitmap.toArray());
+        bitmap.remove(70_000);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void testMatchesBitSetThroughDenseAndSparseChunks() {
+        SplittableRandom random = new SplittableRandom(42);
+        RoomBitmap bitmap = new RoomBitmap();
+        BitSet expected = new BitSet();
+        // Chunk 0 grows dense enough to become a bitmap, chunk 2 stays sparse
+        for (int i = 0; i < 30_000; i++) {
+            int value = random.nextInt(4) == 0 ? 131_072 + random.nextInt(65_536) : random.nextInt(65_536);
+            bitmap.add(value);
+            expected.set(value);
+        }
+        // Then shrinks back below the array threshold
+        for (int i = 0; i < 65_536; i++) {
+            if (random.nextInt(10) != 0) {
+                bitmap.remove(i);
+                expected.clear(i);
+            }
+        }
+        assertArrayEquals(expected.stream().toArray(), bitmap.toArray());
+        assertEquals(expected.cardinality(), bitmap.cardinality());
+    }
+
+    @Test
+    void testAndNotAcrossContainerKinds() {
+        SplittableRandom random = new SplittableRandom(7);
+        RoomBitmap left = new RoomBitmap();
+        RoomBitmap right = new RoomBitmap();
+        BitSet expected = new BitSet();
+        BitSet removed = new BitSet();
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(200_000);
+            left.add(value);
+            expected.set(value);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(300_000);
+            right.add(value);
+            removed.set(value);
+        }
+        RoomBitmap original = left.copy();
+
+        left.andNot(right);
+        expected.andNot(removed);
+        assertArrayEquals(expected.stream().toArray(), left.toArray());
+
+        // The copy was not affected, and subtracting a set from itself empties it
+        assertTrue(original.cardinality() > left.cardinality());
+        original.andNot(original.copy());
+        assertTrue(original.isEmpty());
+    }
+
+    @Test
+    void testAndAcrossContainerKinds() {
+        SplittableRandom random = new SplittableRandom(11);
+        RoomBitmap dense = new RoomBitmap();
+        RoomBitmap sparse = new RoomBitmap();
+        BitSet denseExpected = new BitSet();
+        BitSet sparseExpected = new BitSet();
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(200_000);
+            dense.add(value);
+            denseExpected.set(value);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(300_000);
+            sparse.add(value);
+            sparseExpected.set(value);
+        }
+
+        BitSet expected = (BitSet) denseExpected.clone();
+        expected.and(sparseExpected);
+        assertArrayEquals(expected.stream().toArray(), dense.and(sparse).toArray());
+        assertArrayEquals(expected.stream().toArray(), sparse.and(dense).toArray());
+        assertArrayEquals(denseExpected.stream().toArray(), dense.and(dense).toArray());
+        // Neither operand changes
+        assertEquals(denseExpected.cardinality(), dense.cardinality());
+        assertEquals(sparseExpected.cardinality(), sparse.cardinality());
+    }
+}
@@ -0,0 +1,127 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import com.kayak.hotelsearch.Room;
+
+/**
+ * Unit tests for RoomTable dense and sparse lookups.
+ */
+class RoomTableTest {
+
+    @Test
+    void testDenseRooms() {
+        RoomTable table = new RoomTable();
+        Room room = new Room(101);
+        assertNull(table.put(room));
+
+        assertSame(room, table.get(101));
+        assertNull(table.get(102));
+        assertEquals(1, table.size());
+
+        // Replacing a room keeps the size unchanged
+        Room replacement = new Room(101);
+        assertSame(room, table.put(replacement));
+        assertSame(replacement, table.get(101));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testSparseRoomsGrowAndRemove() {
+        // Room numbers outside 100-999 use the open-addressing fallback
+        RoomTable table = new RoomTable();
+        for (int i = 0; i < 1_000; i++) {
+            table.put(new Room(10_000 + i * 7));
+        }
+        table.put(new Room(5));
+
+        assertEquals(1_001, table.size());
+        assertEquals(10_693, table.get(10_693).getRoomNumber());
+        assertEquals(5, table.get(5).getRoomNumber());
+        assertNull(table.get(10_001));
+
+        assertNotNull(table.remove(10_693));
+        assertNull(table.get(10_693));
+        assertEquals(10_700, table.get(10_700).getRoomNumber());
+        assertEquals(1_000, table.size());
+    }
+
+    @Test
+    void testValuesAndClear() {
+        RoomTable table = new RoomTable();
+        table.put(new Room(103));
+        table.put(new Room(101));
+        table.put(new Room(1_500));
+
+        assertEquals(3, table.values().size());
+        assertEquals(101, table.values().get(0).getRoomNumber());
+        assertTrue(table.toMap().containsKey(1_500));
+
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get(101));
+        assertNull(table.get(1_500));
+    }
+
+    @Test
+    void testSnapshotSharesUnchangedChunks() {
+        RoomTable table = new RoomTable();
+        Room room = new Room(101, "Guest", 3);
+        table.put(room);
+        table.put(new Room(950, "Guest", 1));
+        table.put(new Room(5_000, "Guest", 2));
+
+        RoomStateSnapshot first = table.snapshot();
+        assertEquals(3, first.size());
+        assertEquals(2, first.get(5_000).getAvailableRooms());
+        assertNull(first.get(102));
+
+        // Nothing marked: the same snapshot comes back
+        assertSame(first, table.snapshot());
+        assertSame(first, table.currentSnapshot());
+
+        room.bookRoom();
+        table.markChanged(101);
+        assertNull(table.currentSnapshot());
+        RoomStateSnapshot second = table.snapshot();
+
+        // The earlier snapshot is unaffected and the untouched room's state is shared
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertEquals(3, first.get(101).getAvailableRooms());
+        assertEquals(2, second.get(101).getAvailableRooms());
+        assertSame(first.get(950), second.get(950));
+        assertSame(first.get(5_000), second.get(5_000));
+    }
+
+    @Test
+    void testSpliteratorSplitsCoverEveryRoomOnce() {
+        RoomTable table = new RoomTable();
+        Set<Integer> expected = new HashSet<>();
+        for (int roomNumber = 0; roomNumber < 3_000; roomNumber += 7) {
+            table.put(new Room(roomNumber));
+            expected.add(roomNumber);
+        }
+
+        // Split all the way down, then drain each piece with a mix of tryAdvance and forEachRemaining
+        Set<Integer> seen = new HashSet<>();
+        Deque<Spliterator<Room>> pending = new ArrayDeque<>();
+        pending.push(table.spliterator());
+        while (!pending.isEmpty()) {
+            Spliterator<Room> rooms = pending.pop();
+            Spliterator<Room> prefix = rooms.estimateSize() > 16 ? rooms.trySplit() : null;
+            if (prefix != null) {
+                pending.push(prefix);
+                pending.push(rooms);
+                continue;
+            }
+            rooms.tryAdvance(room -> assertTrue(seen.add(room.getRoomNumber())));
+            rooms.forEachRemaining(room -> assertTrue(seen.add(room.getRoomNumber())));
+        }
+        assertEquals(expected, seen);
+    }
+}
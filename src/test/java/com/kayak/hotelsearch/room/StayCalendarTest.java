@@ -0,0 +1,78 @@
+package com.kayak.hotelsearch.room;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StayCalendar overlap detection.
+ */
+class StayCalendarTest {
+
+    @Test
+    void testSingleUnitOverlap() {
+        StayCalendar calendar = new StayCalendar(1);
+
+        assertEquals(0, calendar.book(10, 15));
+        assertEquals(-1, calendar.book(12, 13)); // Inside existing stay
+        assertEquals(-1, calendar.book(8, 11));  // Overlaps check-in
+        assertEquals(-1, calendar.book(14, 20)); // Overlaps check-out
+        assertEquals(-1, calendar.book(5, 25));  // Covers existing stay
+        assertEquals(0, calendar.book(15, 16));  // Starts on check-out day
+        assertEquals(0, calendar.book(5, 10));   // Ends on check-in day
+        assertEquals(3, calendar.getStayCount());
+    }
+
+    @Test
+    void testMultipleUnits() {
+        StayCalendar calendar = new StayCalendar(2);
+
+        assertEquals(0, calendar.book(1, 5));
+        assertEquals(1, calendar.book(3, 7));
+        assertEquals(-1, calendar.book(4, 6));
+        assertTrue(calendar.isAvailable(5, 7));
+
+        assertTrue(calendar.release(1, 5));
+        assertFalse(calendar.release(1, 5));
+        assertEquals(0, calendar.book(4, 6));
+    }
+
+    @Test
+    void testManyFutureStays() {
+        // Fill every other night for a long horizon and probe the gaps
+        StayCalendar calendar = new StayCalendar(1);
+        for (long day = 0; day < 20_000; day += 2) {
+            assertEquals(0, calendar.book(day, day + 1));
+        }
+
+        assertTrue(calendar.isAvailable(9_001, 9_002));
+        assertFalse(calendar.isAvailable(9_001, 9_003));
+        assertEquals(10_000, calendar.getStayCount());
+    }
+
+    @Test
+    void testInvalidRange() {
+        StayCalendar calendar = new StayCalendar(1);
+        assertThrows(IllegalArgumentException.class, () -> calendar.book(5, 5));
+        assertThrows(IllegalArgumentException.class, () -> calendar.isAvailable(6, 5));
+    }
+
+    @Test
+    void testHeldStaysBlockButAreNotPersisted() {
+        StayCalendar calendar = new StayCalendar(1);
+        assertEquals(0, calendar.hold(100, 103));
+        assertEquals(-1, calendar.book(101, 102));
+        assertEquals(0, calendar.stays().length);
+
+        // A plain release does not touch a hold
+        assertFalse(calendar.release(100, 103));
+
+        assertTrue(calendar.confirmHold(0, 100));
+        assertArrayEquals(new int[] {0, 100, 103}, calendar.stays());
+        assertFalse(calendar.cancelHold(0, 100));
+
+        assertEquals(0, calendar.hold(103, 105));
+        assertTrue(calendar.cancelHold(0, 103));
+        assertTrue(calendar.isAvailable(103, 105));
+        assertEquals(0, calendar.getHoldCount());
+    }
+}
@@ -0,0 +1,143 @@
+package com.kayak.hotelsearch.wire;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import com.kayak.hotelsearch.Room;
+import com.kayak.hotelsearch.RoomDatabaseAccessService;
+
+/**
+ * Unit tests for the binary protocol server and client.
+ */
+class BinaryBookingServerTest {
+    private RoomDatabaseAccessService service;
+    private BinaryBookingServer server;
+    private BinaryBookingClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new RoomDatabaseAccessService();
+        service.addRoom(new Room(101, null, 1));
+        service.addRoom(new Room(102, null, 100_000));
+        server = new BinaryBookingServer(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        server.start();
+        client = new BinaryBookingClient(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void testBookReleaseAndQuery() throws IOException {
+        UUID requestId = UUID.randomUUID();
+        client.book(requestId, 101);
+        client.book(null, 101);
+        client.book(null, 999);
+        client.query(101, null, null);
+        client.release(101);
+        client.query(101, null, null);
+
+        BinaryBookingClient.Response booked = client.readResponse();
+        assertEquals(WireProtocol.OK, booked.getStatus());
+        assertEquals(requestId, booked.getRequestId());
+        assertEquals(WireProtocol.REJECTED, client.readResponse().getStatus());
+        assertEquals(WireProtocol.NOT_FOUND, client.readResponse().getStatus());
+        assertEquals(0, client.readResponse().getValue());
+        assertEquals(WireProtocol.OK, client.readResponse().getStatus());
+        assertEquals(1, client.readResponse().getValue());
+    }
+
+    @Test
+    void testRetriedRequestIdIsNotBookedTwice() throws IOException {
+        UUID requestId = UUID.randomUUID();
+        client.book(requestId, 102);
+        client.book(requestId, 102);
+        assertEquals(WireProtocol.OK, client.readResponse().getStatus());
+        assertEquals(WireProtocol.OK, client.readResponse().getStatus());
+        assertEquals(100_000 - 1, service.getRoom(102).getAvailableRooms());
+    }
+
+    @Test
+    void testDatedCommands() throws IOException {
+        LocalDate checkIn = LocalDate.of(2030, 1, 1);
+        LocalDate checkOut = LocalDate.of(2030, 1, 3);
+        client.book(null, 101, checkIn, checkOut);
+        client.book(null, 101, checkIn.plusDays(1), checkOut.plusDays(1));
+        client.query(101, checkOut, checkOut.plusDays(1));
+        client.release(101, checkIn, checkOut);
+        client.book(null, 101, checkOut, checkIn);
+
+        assertEquals(WireProtocol.OK, client.readResponse().getStatus());
+        assertEquals(WireProtocol.REJECTED, client.readResponse().getStatus());
+        assertEquals(1, client.readResponse().getValue());
+        assertEquals(WireProtocol.OK, client.readResponse().getStatus());
+        assertEquals(WireProtocol.BAD_REQUEST, client.readResponse().getStatus());
+    }
+
+    @Test
+    void testDeepPipelineKeepsOrder() throws IOException {
+        // Far more than one buffer's worth of responses in flight
+        int commands = 20_000;
+        for (int i = 0; i < commands; i++) {
+            client.book(new UUID(1, i + 1), 102);
+        }
+        client.flush();
+        for (int i = 0; i < commands; i++) {
+            BinaryBookingClient.Response response = client.readResponse();
+            assertEquals(i + 1, response.getRequestId().getLeastSignificantBits());
+            assertEquals(WireProtocol.OK, response.getStatus());
+        }
+        assertEquals(100_000 - commands, service.getRoom(102).getAvailableRooms());
+    }
+
+    @Test
+    void testPipelineBeyondSocketBuffersDoesNotDeadlock() throws IOException {
+        // Enough commands to fill the send and receive buffers on both sides many times over
+        int commands = 500_000;
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            for (int i = 0; i < commands; i++) {
+                client.query(102, null, null);
+            }
+            for (int i = 0; i < commands; i++) {
+                assertEquals(100_000, client.readResponse().getValue());
+            }
+        });
+    }
+
+    @Test
+    void testFramesSplitAcrossWrites() throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + WireProtocol.COMMAND_LENGTH);
+        WireProtocol.putCommand(frame, WireProtocol.QUERY, 0, 7, 102, WireProtocol.NO_DAY, WireProtocol.NO_DAY);
+        frame.flip();
+        client.sendRaw(frame.duplicate().limit(3));
+        client.sendRaw(frame.position(3));
+
+        BinaryBookingClient.Response response = client.readResponse();
+        assertEquals(7, response.getRequestId().getLeastSignificantBits());
+        assertEquals(100_000, response.getValue());
+    }
+
+    @Test
+    void testUnknownOpcodeAndOversizedFrame() throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + WireProtocol.COMMAND_LENGTH);
+        WireProtocol.putCommand(frame, (byte) 42, 0, 1, 102, WireProtocol.NO_DAY, WireProtocol.NO_DAY);
+        client.sendRaw(frame.flip());
+        assertEquals(WireProtocol.BAD_REQUEST, client.readResponse().getStatus());
+
+        // A frame length beyond the limit means the stream is broken, so the server hangs up
+        client.sendRaw(ByteBuffer.allocate(Integer.BYTES).putInt(WireProtocol.MAX_FRAME_LENGTH + 1).flip());
+        assertThrows(EOFException.class, client::readResponse);
+    }
+}